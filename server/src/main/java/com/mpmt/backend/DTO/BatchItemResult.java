@@ -0,0 +1,13 @@
+package com.mpmt.backend.DTO;
+
+/** Résultat d'un élément d'une création en lot : index dans la requête, id créé ou message d'erreur. */
+public record BatchItemResult(int index, Long id, String error) {
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, id, null);
+    }
+
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.StatusType;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkStatusUpdateRequest(@NotEmpty @Size(max = 5000) List<Long> ids, @NotNull StatusType status) {}
@@ -0,0 +1,8 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.StatusType;
+
+import java.util.List;
+
+/** Ids effectivement passés au statut demandé (les autres étaient déjà dans ce statut ou n'existent pas). */
+public record BulkStatusUpdateResult(StatusType status, List<Long> updated) {}
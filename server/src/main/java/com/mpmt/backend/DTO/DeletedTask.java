@@ -0,0 +1,17 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.StatusType;
+
+import java.util.List;
+
+/**
+ * Ce que renvoie la suppression d'une tâche : son projet et son statut, et les utilisateurs dont des
+ * notifications non lues sur la tâche partent avec elle (ON DELETE CASCADE). Renseigné sous PostgreSQL
+ * uniquement ; ailleurs projectId et status sont null et la liste vide.
+ */
+public record DeletedTask(Long id, Long projectId, StatusType status, List<Long> unreadNotificationUserIds) {
+
+    public static DeletedTask idOnly(Long id) {
+        return new DeletedTask(id, null, null, List.of());
+    }
+}
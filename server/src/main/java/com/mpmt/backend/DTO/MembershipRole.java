@@ -0,0 +1,6 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.RoleType;
+
+/** Projection légère d'une appartenance : projet + rôle, sans charger ProjectMember/User/Project. */
+public record MembershipRole(Long projectId, RoleType role) {}
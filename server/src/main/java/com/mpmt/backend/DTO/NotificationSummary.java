@@ -0,0 +1,46 @@
+package com.mpmt.backend.DTO;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/** Notification telle qu'affichée dans le panneau (GET /api/notifications/user/{userId}/feed). */
+public record NotificationSummary(Long id, Long taskId, String content, boolean read, Date sentAt) {
+
+    /**
+     * Dernière notification vue (tri sentAt desc, id desc), encodée pour le client dans X-Next-Cursor :
+     * "2025-06-30T10:15:30.123456Z_42". L'instant garde la précision de la base (microsecondes sous PostgreSQL).
+     */
+    public record Cursor(Timestamp sentAt, Long id) {
+
+        public static Cursor of(NotificationSummary last) {
+            return of(last.sentAt(), last.id());
+        }
+
+        public static Cursor of(Date sentAt, Long id) {
+            return new Cursor(toTimestamp(sentAt), id);
+        }
+
+        /** Lève IllegalArgumentException si le curseur est mal formé. */
+        public static Cursor parse(String raw) {
+            if (raw == null || raw.isBlank()) return null;
+            int sep = raw.lastIndexOf('_');
+            if (sep < 0) throw new IllegalArgumentException("Invalid cursor: " + raw);
+            try {
+                return new Cursor(Timestamp.from(Instant.parse(raw.substring(0, sep))),
+                        Long.parseLong(raw.substring(sep + 1)));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + raw, e);
+            }
+        }
+
+        public String encode() {
+            return sentAt.toInstant() + "_" + id;
+        }
+
+        private static Timestamp toTimestamp(Date date) {
+            return date instanceof Timestamp ts ? ts : new Timestamp(date.getTime());
+        }
+    }
+}
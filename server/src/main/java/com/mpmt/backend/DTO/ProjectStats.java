@@ -7,6 +7,18 @@ public class ProjectStats {
     private long doneCount;
     private int progress;
 
+    /** Construit les statistiques à partir des compteurs par statut (progress = % de DONE). */
+    public static ProjectStats of(long todo, long inProgress, long done) {
+        ProjectStats stats = new ProjectStats();
+        long total = todo + inProgress + done;
+        stats.setTotalTasks((int) total);
+        stats.setTodoCount(todo);
+        stats.setInProgressCount(inProgress);
+        stats.setDoneCount(done);
+        stats.setProgress(total == 0 ? 0 : (int) ((done * 100.0) / total));
+        return stats;
+    }
+
     // Getters et setters
     public int getTotalTasks() { return totalTasks; }
     public void setTotalTasks(int totalTasks) { this.totalTasks = totalTasks; }
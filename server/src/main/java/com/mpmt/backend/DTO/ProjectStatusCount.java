@@ -0,0 +1,6 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.StatusType;
+
+/** Projection d'un group by (projet, status) sur toutes les tâches, utilisée par la réconciliation des compteurs. */
+public record ProjectStatusCount(Long projectId, StatusType status, Long count) {}
@@ -0,0 +1,6 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.StatusType;
+
+/** Projection d'un group by status : nombre de tâches d'un projet pour un statut donné. */
+public record StatusCount(StatusType status, Long count) {}
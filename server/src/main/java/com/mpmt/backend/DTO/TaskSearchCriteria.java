@@ -0,0 +1,60 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.PriorityType;
+import com.mpmt.backend.entity.StatusType;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Filtres de GET /api/projects/{id}/tasks/search, compilés en une seule requête par TaskSearchRepository.
+ * Les listes vides et les valeurs null ne filtrent pas. after = position de reprise (pagination keyset).
+ */
+public record TaskSearchCriteria(
+        Long projectId,
+        List<StatusType> statuses,
+        List<PriorityType> priorities,
+        LocalDate dueFrom,
+        LocalDate dueTo,
+        Long assigneeId,
+        Sort sort,
+        Cursor after
+) {
+
+    /** Tri stable : par id, ou par échéance (sans échéance en dernier) puis id. */
+    public enum Sort { ID, DUE_DATE }
+
+    /**
+     * Dernière tâche vue, encodée pour le client dans X-Next-Cursor :
+     * "42" en tri ID, "2025-06-30_42" ou "none_42" (sans échéance) en tri DUE_DATE.
+     */
+    public record Cursor(LocalDate dueDate, Long id) {
+
+        private static final String NO_DATE = "none";
+
+        public static Cursor of(TaskSummary last) {
+            return new Cursor(last.dueDate(), last.id());
+        }
+
+        /** Lève IllegalArgumentException si le curseur est mal formé. */
+        public static Cursor parse(String raw, Sort sort) {
+            if (raw == null || raw.isBlank()) return null;
+            try {
+                if (sort == Sort.ID) return new Cursor(null, Long.parseLong(raw));
+                int sep = raw.lastIndexOf('_');
+                if (sep < 0) throw new IllegalArgumentException("Invalid cursor: " + raw);
+                String date = raw.substring(0, sep);
+                return new Cursor(NO_DATE.equals(date) ? null : LocalDate.parse(date),
+                        Long.parseLong(raw.substring(sep + 1)));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + raw, e);
+            }
+        }
+
+        public String encode(Sort sort) {
+            if (sort == Sort.ID) return String.valueOf(id);
+            return (dueDate == null ? NO_DATE : dueDate.toString()) + "_" + id;
+        }
+    }
+}
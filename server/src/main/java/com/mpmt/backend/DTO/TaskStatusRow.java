@@ -0,0 +1,6 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.StatusType;
+
+/** Statut courant d'une tâche, lu avant un changement de statut en masse. */
+public record TaskStatusRow(Long id, Long projectId, StatusType status) {}
@@ -0,0 +1,18 @@
+package com.mpmt.backend.DTO;
+
+import com.mpmt.backend.entity.PriorityType;
+import com.mpmt.backend.entity.StatusType;
+
+import java.time.LocalDate;
+
+/** Vue allégée d'une tâche pour les tableaux projet : uniquement les colonnes affichées sur une carte. */
+public record TaskSummary(
+        Long id,
+        Long projectId,
+        String name,
+        String description,
+        StatusType status,
+        PriorityType priority,
+        LocalDate dueDate,
+        LocalDate endDate
+) {}
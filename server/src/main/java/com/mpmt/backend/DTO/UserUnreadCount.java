@@ -0,0 +1,4 @@
+package com.mpmt.backend.DTO;
+
+/** Projection d'un group by user sur les notifications non lues, utilisée par la réconciliation des compteurs. */
+public record UserUnreadCount(Long userId, Long count) {}
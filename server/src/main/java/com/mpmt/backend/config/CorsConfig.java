@@ -106,7 +106,10 @@ public class CorsConfig {
                 "remember-me",
                 "X-Total-Count",
                 "X-Page-Number",
-                "X-Page-Size"
+                "X-Page-Size",
+                "X-Next-Cursor",
+                "X-Request-Id",
+                "ETag"
         ));
 
         // Autoriser l'envoi de credentials (cookies, authorization headers)
@@ -0,0 +1,17 @@
+package com.mpmt.backend.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestMdcFilter> requestMdcFilterRegistration() {
+        FilterRegistrationBean<RequestMdcFilter> bean = new FilterRegistrationBean<>(new RequestMdcFilter());
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1); // juste après CorsFilter, avant la chaîne Spring Security
+        return bean;
+    }
+}
@@ -45,6 +45,7 @@ public class SecurityConfig {
                 // ⚠️ CORS géré par CorsConfig (CorsFilter global); pas de config CORS ici
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // metrics, info : exploitation
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/auth/**", "/auth/**", "/hello").permitAll()
                         .requestMatchers(
@@ -5,6 +5,8 @@ import com.mpmt.backend.DTO.SignupRequest;
 import com.mpmt.backend.entity.User;
 import com.mpmt.backend.service.UserService;
 import com.mpmt.backend.security.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +24,8 @@ import java.util.Optional;
 //@CrossOrigin(origins = "*")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
@@ -85,6 +89,6 @@ public class AuthController {
 
     @PostConstruct
     public void init() {
-        System.out.println("✅ AuthController chargé");
+        log.debug("AuthController chargé");
     }
 }
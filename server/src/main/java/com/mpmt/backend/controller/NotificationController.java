@@ -1,10 +1,17 @@
 package com.mpmt.backend.controller;
 
+import com.mpmt.backend.DTO.NotificationSummary;
 import com.mpmt.backend.entity.Notification;
+import com.mpmt.backend.entity.User;
 import com.mpmt.backend.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +28,31 @@ public class NotificationController {
         this.notificationService = notificationService;
     }
 
+    /**
+     * Flux SSE des notifications de l'utilisateur connecté (remplace le polling de /user/{userId}).
+     * Événements "notification" (id = curseur "sentAt_id" de la notification) ; le header Last-Event-ID envoyé
+     * à la reconnexion fait rattraper les notifications manquées (400 s'il est mal formé) ; un événement "resync"
+     * signale un rattrapage tronqué, le client recharge alors son fil.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter;
+        try {
+            emitter = notificationService.subscribe(user.getId(), lastEventId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // pas de mise en tampon par un reverse proxy nginx
+                .body(emitter);
+    }
+
     @GetMapping
     public List<Notification> getAllNotifications() {
         return notificationService.getAllNotifications();
@@ -42,6 +74,43 @@ public class NotificationController {
         return notificationService.getUnreadByUserId(userId);
     }
 
+    /**
+     * Fil paginé (plus récentes d'abord) : ?unread=true pour les non lues seules, ?size= (20 par défaut, 100 max).
+     * S'il reste des notifications, X-Next-Cursor donne le ?cursor= de la page suivante.
+     */
+    @GetMapping("/user/{userId}/feed")
+    public ResponseEntity<List<NotificationSummary>> getFeed(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean unread,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        NotificationSummary.Cursor after;
+        try {
+            after = NotificationSummary.Cursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = NotificationService.clampFeedSize(size);
+        List<NotificationSummary> rows = notificationService.getFeed(userId, unread, after, pageSize + 1); // +1 : savoir s'il y a une suite
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("X-Page-Size", String.valueOf(pageSize));
+        if (hasMore) {
+            response.header("X-Next-Cursor", NotificationSummary.Cursor.of(page.get(page.size() - 1)).encode());
+        }
+        return response.body(page);
+    }
+
+    /** Badge : nombre de notifications non lues, sans charger les notifications. */
+    @GetMapping("/user/{userId}/unread/count")
+    public long getUnreadCount(@PathVariable Long userId) {
+        return notificationService.getUnreadCount(userId);
+    }
+
     @PostMapping
     public Notification createNotification(@RequestBody Notification notification) {
         return notificationService.createNotification(notification);
@@ -53,6 +122,18 @@ public class NotificationController {
         return ResponseEntity.noContent().build();
     }
 
+    /** Tout marquer comme lu : un seul UPDATE ; réponse = nombre de notifications passées à lues. */
+    @PutMapping("/user/{userId}/read-all")
+    public int markAllRead(@PathVariable Long userId) {
+        return notificationService.markAllRead(userId);
+    }
+
+    /** Marque comme lues les notifications d'ids donnés (corps : tableau d'ids) de cet utilisateur. */
+    @PutMapping("/user/{userId}/read")
+    public int markRead(@PathVariable Long userId, @RequestBody List<Long> ids) {
+        return notificationService.markRead(userId, ids);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
         notificationService.deleteNotification(id);
@@ -1,22 +1,33 @@
 // java
 package com.mpmt.backend.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mpmt.backend.DTO.BatchItemResult;
 import com.mpmt.backend.DTO.CreateProjectRequest;
 import com.mpmt.backend.DTO.ProjectStats;
 import com.mpmt.backend.DTO.ProjectSummary;
+import com.mpmt.backend.DTO.TaskSearchCriteria;
+import com.mpmt.backend.DTO.TaskSummary;
 import com.mpmt.backend.entity.*;
 import com.mpmt.backend.security.ProjectSecurity;
 import com.mpmt.backend.service.ProjectMemberService;
 import com.mpmt.backend.service.ProjectService;
+import com.mpmt.backend.service.TaskImportService;
 import com.mpmt.backend.service.TaskService;
 import com.mpmt.backend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +41,8 @@ public class ProjectController {
     private final TaskService taskService;
     private final UserService userService;
     private final ProjectSecurity projectSecurity;
+    private final TaskImportService taskImportService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public ProjectController(
@@ -37,13 +50,17 @@ public class ProjectController {
             ProjectMemberService projectMemberService,
             TaskService taskService,
             UserService userService,
-            ProjectSecurity projectSecurity
+            ProjectSecurity projectSecurity,
+            TaskImportService taskImportService,
+            ObjectMapper objectMapper
     ) {
         this.projectService = projectService;
         this.projectMemberService = projectMemberService;
         this.taskService = taskService;
         this.userService = userService;
         this.projectSecurity = projectSecurity;
+        this.taskImportService = taskImportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{id}")
@@ -126,29 +143,47 @@ public class ProjectController {
         return ResponseEntity.ok(tasks);
     }
 
-    @GetMapping("/{id}/stats")
-    public ResponseEntity<ProjectStats> getProjectStats(@PathVariable Long id) {
-        List<Task> tasks = taskService.getTasksByProjectId(id);
-
-        if (tasks.isEmpty()) {
-            ProjectStats emptyStats = new ProjectStats();
-            emptyStats.setTotalTasks(0);
-            emptyStats.setProgress(0);
-            return ResponseEntity.ok(emptyStats);
+    /**
+     * Tâches d'un projet filtrées (status, priority, échéance, assignee = id utilisateur), triées (ID | DUE_DATE)
+     * et paginées par curseur : ?cursor= reprend la valeur du header X-Next-Cursor de la page précédente.
+     * Retourne des TaskSummary (pas l'entité Task) ; size borné à TaskService.MAX_PAGE_SIZE.
+     */
+    @GetMapping("/{id}/tasks/search")
+    public ResponseEntity<List<TaskSummary>> searchTasksForProject(
+            @PathVariable Long id,
+            @RequestParam(required = false) List<StatusType> status,
+            @RequestParam(required = false) List<PriorityType> priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(defaultValue = "ID") TaskSearchCriteria.Sort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        TaskSearchCriteria.Cursor after;
+        try {
+            after = TaskSearchCriteria.Cursor.parse(cursor, sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
 
-        long todo = tasks.stream().filter(t -> t.getStatus() == StatusType.TODO).count();
-        long inProgress = tasks.stream().filter(t -> t.getStatus() == StatusType.IN_PROGRESS).count();
-        long done = tasks.stream().filter(t -> t.getStatus() == StatusType.DONE).count();
+        TaskSearchCriteria criteria = new TaskSearchCriteria(id, status, priority, dueFrom, dueTo, assigneeId, sort, after);
+        int pageSize = TaskService.clampPageSize(size);
+        List<TaskSummary> rows = taskService.searchProjectTasks(criteria, pageSize + 1); // +1 : savoir s'il y a une suite
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
 
-        ProjectStats stats = new ProjectStats();
-        stats.setTotalTasks(tasks.size());
-        stats.setTodoCount(todo);
-        stats.setInProgressCount(inProgress);
-        stats.setDoneCount(done);
-        stats.setProgress((int) ((done * 100.0) / tasks.size()));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("X-Page-Size", String.valueOf(pageSize));
+        if (hasMore) {
+            response.header("X-Next-Cursor", TaskSearchCriteria.Cursor.of(page.get(page.size() - 1)).encode(sort));
+        }
+        return response.body(page);
+    }
 
-        return ResponseEntity.ok(stats);
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ProjectStats> getProjectStats(@PathVariable Long id) {
+        return ResponseEntity.ok(taskService.getProjectStats(id));
     }
 
     @PostMapping("/{id}/tasks")
@@ -161,6 +196,20 @@ public class ProjectController {
         return ResponseEntity.ok(created);
     }
 
+    /**
+     * Import en lot : tableau JSON ou NDJSON (une tâche par ligne), lu au fil de l'eau.
+     * Le projet est vérifié une seule fois ; le résultat donne, pour chaque élément, l'id créé ou l'erreur.
+     */
+    @PostMapping(value = "/{id}/tasks:batch", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<List<BatchItemResult>> createTasksBatch(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        if (projectService.getProjectById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try (MappingIterator<Task> tasks = objectMapper.readerFor(Task.class).readValues(request.getInputStream())) {
+            return ResponseEntity.ok(taskImportService.importTasks(id, tasks));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Project> updateProject(@PathVariable Long id, @RequestBody Project updatedProject) {
         Optional<Project> optionalProject = projectService.getProjectById(id);
@@ -1,5 +1,10 @@
 package com.mpmt.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mpmt.backend.DTO.BulkStatusUpdateRequest;
+import com.mpmt.backend.DTO.BulkStatusUpdateResult;
 import com.mpmt.backend.DTO.StatusUpdateRequest;
 import com.mpmt.backend.entity.StatusType;
 import com.mpmt.backend.entity.Task;
@@ -7,9 +12,16 @@ import com.mpmt.backend.service.TaskService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,22 +30,73 @@ import java.util.Optional;
 // @CrossOrigin(origins = "*")
 public class TaskController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int STREAM_FLUSH_EVERY = 500;
+
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Page de tâches triées par id (pagination keyset) : toujours un tableau JSON pour le front.
+     * ?afterId= reprend après le dernier id reçu, ?size= est borné à TaskService.MAX_PAGE_SIZE.
+     * S'il reste des tâches, le header X-Next-Cursor donne l'afterId de la page suivante.
+     */
     @GetMapping
-    public List<Task> getAllTasks() {
-        return taskService.getAllTasks();
+    public ResponseEntity<List<Task>> getAllTasks(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size
+    ) {
+        int pageSize = TaskService.clampPageSize(size);
+        List<Task> rows = taskService.getTasksAfter(afterId, pageSize + 1); // +1 : savoir s'il y a une suite
+        boolean hasMore = rows.size() > pageSize;
+        List<Task> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("X-Page-Size", String.valueOf(pageSize));
+        if (hasMore) {
+            response.header("X-Next-Cursor", String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Export en flux (Accept: application/x-ndjson) : une tâche JSON par ligne, écrite au fil du curseur JDBC.
+     * Ni le serveur ni le client ne tiennent la table entière en mémoire.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllTasks(@RequestParam(required = false) Long afterId) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                int[] written = {0};
+                taskService.streamTasks(afterId, task -> {
+                    try {
+                        writer.write(task);
+                        if (++written[0] % STREAM_FLUSH_EVERY == 0) writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
+    /**
+     * ETag = version de la tâche : Spring répond 304 sans corps si If-None-Match correspond.
+     */
     @GetMapping("/{id}")
     public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
         Optional<Task> task = taskService.getTaskById(id);
-        return task.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        return task.map(TaskController::okWithETag).orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/by-status")
@@ -53,12 +116,9 @@ public class TaskController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-        if (taskService.getTaskById(id).isPresent()) {
-            taskService.deleteTask(id);
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+        return taskService.deleteTask(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     /**
@@ -66,29 +126,76 @@ public class TaskController {
      * Le service met à jour uniquement les champs non nuls (name, description, status, priority, dueDate, endDate).
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task updatedTask) {
-        // 404 si la tâche n'existe pas
-        if (taskService.getTaskById(id).isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
+    public ResponseEntity<Task> updateTask(
+            @PathVariable Long id,
+            @RequestBody Task updatedTask,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         // on force l'id depuis l'URL, on ne copie PAS createdBy/project
         updatedTask.setId(id);
 
-        Task savedTask = taskService.updateTask(updatedTask);
-        return ResponseEntity.ok(savedTask);
+        try {
+            return okWithETag(taskService.updateTask(updatedTask, versionOf(ifMatch)));
+        } catch (EntityNotFoundException ex) {
+            // 404 signalé par le service, qui charge la tâche une seule fois
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException ex) {
+            return conflict(ifMatch);
+        }
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<Task> updateStatus(
             @PathVariable Long id,
-            @RequestBody @Valid StatusUpdateRequest body
+            @RequestBody @Valid StatusUpdateRequest body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         try {
-            Task updated = taskService.updateTaskStatus(id, body.status());
-            return ResponseEntity.ok(updated);
+            return okWithETag(taskService.updateTaskStatus(id, body.status(), versionOf(ifMatch)));
         } catch (EntityNotFoundException ex) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException ex) {
+            return conflict(ifMatch);
         }
     }
+
+    /**
+     * Changement de statut en masse (ex : toute une colonne passée à DONE) en une seule transaction.
+     * Réponse : les ids réellement modifiés ; les autres étaient déjà dans ce statut ou n'existent pas.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResult> updateStatuses(@RequestBody @Valid BulkStatusUpdateRequest body) {
+        List<Long> updated = taskService.updateTaskStatuses(body.ids(), body.status());
+        return ResponseEntity.ok(new BulkStatusUpdateResult(body.status(), updated));
+    }
+
+    // ----------------- Helpers -----------------
+
+    private static ResponseEntity<Task> okWithETag(Task task) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (task.getVersion() != null) response.eTag("\"" + task.getVersion() + "\"");
+        return response.body(task);
+    }
+
+    /**
+     * Version attendue d'après If-Match ("3" ou W/"3") ; null si absent ou "*" (pas de condition).
+     * Un ETag illisible ne correspond à aucune version : la mise à jour échouera en 412.
+     */
+    static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        tag = tag.replace("\"", "");
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /** Conflit de version : 412 si le client avait posé une condition If-Match, 409 sinon (écriture concurrente). */
+    private static ResponseEntity<Task> conflict(String ifMatch) {
+        HttpStatus status = versionOf(ifMatch) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).build();
+    }
 }
@@ -1,9 +1,9 @@
 package com.mpmt.backend.controller;
 
+import com.mpmt.backend.DTO.TaskSummary;
 import com.mpmt.backend.entity.User;
 import com.mpmt.backend.entity.Project;
 import com.mpmt.backend.entity.Notification;
-import com.mpmt.backend.entity.Task;
 import com.mpmt.backend.service.UserService;
 import com.mpmt.backend.service.ProjectMemberService;
 import com.mpmt.backend.service.NotificationService;
@@ -71,12 +71,9 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        if (userService.getUserById(id).isPresent()) {
-            userService.deleteUser(id);
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+        return userService.deleteUser(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     // --- ENDPOINTS AVANCÉS ---
@@ -93,9 +90,26 @@ public class UserController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Tâches assignées à l'utilisateur, par pages triées par id (?afterId=, ?size= borné à TaskService.MAX_PAGE_SIZE).
+     * X-Next-Cursor donne l'afterId de la page suivante s'il en reste.
+     */
     @GetMapping("/{id}/tasks")
-    public ResponseEntity<List<Task>> getAssignedTasksForUser(@PathVariable Long id) {
-        List<Task> tasks = taskAssignmentService.findTasksAssignedToUser(id);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskSummary>> getAssignedTasksForUser(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size
+    ) {
+        int pageSize = TaskService.clampPageSize(size);
+        List<TaskSummary> rows = taskAssignmentService.findTasksAssignedToUser(id, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("X-Page-Size", String.valueOf(pageSize));
+        if (hasMore) {
+            response.header("X-Next-Cursor", String.valueOf(page.get(page.size() - 1).id()));
+        }
+        return response.body(page);
     }
 }
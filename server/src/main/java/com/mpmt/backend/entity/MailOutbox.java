@@ -0,0 +1,83 @@
+package com.mpmt.backend.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * E-mail en attente d'envoi (outbox transactionnelle) : écrit dans la même transaction que l'objet métier
+ * qui le déclenche, envoyé ensuite par MailOutboxDispatcher. Le contenu est rendu à l'envoi
+ * à partir du modèle (template) et de ses paramètres (JSON).
+ */
+@Entity
+@Table(name = "mail_outbox")
+public class MailOutbox {
+
+    public enum Status { PENDING, SENT, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_seq")
+    @SequenceGenerator(name = "mail_outbox_seq", sequenceName = "mail_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 64)
+    private String template;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String params;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date createdAt = new Date();
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date nextAttemptAt = new Date();
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Getters & setters
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getTemplate() { return template; }
+    public void setTemplate(String template) { this.template = template; }
+
+    public String getParams() { return params; }
+    public void setParams(String params) { this.params = params; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    public Date getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Date nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public Date getSentAt() { return sentAt; }
+    public void setSentAt(Date sentAt) { this.sentAt = sentAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -7,7 +7,8 @@ import java.util.Date;
 @Table(name = "notification")
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -23,6 +24,7 @@ public class Notification {
     private boolean read = false;
 
     @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
     private Date sentAt = new Date();
 
     // Getters & setters
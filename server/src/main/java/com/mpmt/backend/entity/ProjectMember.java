@@ -9,7 +9,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @Table(name = "project_member")
 public class ProjectMember {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_member_seq")
+    @SequenceGenerator(name = "project_member_seq", sequenceName = "project_member_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -6,7 +6,8 @@ import jakarta.persistence.*;
 @Table(name = "task_assignment")
 public class TaskAssignment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_assignment_seq")
+    @SequenceGenerator(name = "task_assignment_seq", sequenceName = "task_assignment_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
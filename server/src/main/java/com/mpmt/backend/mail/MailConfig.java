@@ -33,6 +33,16 @@ public class MailConfig {
     @Value("${spring.mail.properties.mail.smtp.starttls.enable:false}")
     private String starttls;
 
+    // Timeouts SMTP en ms (JavaMail attend indéfiniment par défaut) : bien en dessous de app.mail.outbox.lease
+    @Value("${spring.mail.properties.mail.smtp.connectiontimeout:10000}")
+    private String connectionTimeout;
+
+    @Value("${spring.mail.properties.mail.smtp.timeout:30000}")
+    private String readTimeout;
+
+    @Value("${spring.mail.properties.mail.smtp.writetimeout:30000}")
+    private String writeTimeout;
+
     @Value("${spring.mail.properties.mail.debug:false}")
     private String debug;
 
@@ -49,6 +59,9 @@ public class MailConfig {
         props.put("mail.transport.protocol", protocol);
         props.put("mail.smtp.auth", smtpAuth);
         props.put("mail.smtp.starttls.enable", starttls);
+        props.put("mail.smtp.connectiontimeout", connectionTimeout);
+        props.put("mail.smtp.timeout", readTimeout);
+        props.put("mail.smtp.writetimeout", writeTimeout);
         props.put("mail.debug", debug);
 
         return mailSender;
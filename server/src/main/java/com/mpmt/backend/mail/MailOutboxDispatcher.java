@@ -0,0 +1,265 @@
+package com.mpmt.backend.mail;
+
+import com.mpmt.backend.entity.MailOutbox;
+import com.mpmt.backend.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoi des e-mails de l'outbox (table mail_outbox), hors des requêtes HTTP.
+ *  - à chaque passage, un lot de lignes dues est réservé (SELECT ... FOR UPDATE SKIP LOCKED) :
+ *    leur prochaine échéance est repoussée de lease, le temps de l'envoi ;
+ *  - les assignations en attente des mêmes destinataires sont réservées avec le lot (digest, cf. MailService) ;
+ *  - le lot est découpé en paquets de max-messages-per-connection, chacun envoyé sur une seule session SMTP
+ *    par un pool de concurrency threads : jamais plus de concurrency connexions SMTP ;
+ *  - succès : ligne SENT ; échec : nouvel essai après un délai exponentiel (backoff-initial, doublé
+ *    à chaque essai, plafonné à backoff-max), FAILED après max-attempts.
+ * Un arrêt brutal en cours d'envoi laisse la ligne PENDING : elle repart à la fin du bail
+ * (au moins une fois, jamais perdue). Les envois sont bornés par les timeouts SMTP (MailConfig) et l'attente
+ * d'un lot par le bail : un serveur qui ne répond plus ne bloque pas les autres tâches @Scheduled.
+ */
+@Component
+public class MailOutboxDispatcher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository repository;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor sender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffInitialMillis;
+    private final long backoffMaxMillis;
+    private final long leaseMillis;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Autowired
+    public MailOutboxDispatcher(
+            MailOutboxRepository repository,
+            MailService mailService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.mail.outbox.concurrency:4}") int concurrency,
+            @Value("${app.mail.outbox.batch-size:100}") int batchSize,
+            @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.outbox.backoff-initial:PT30S}") Duration backoffInitial,
+            @Value("${app.mail.outbox.backoff-max:PT1H}") Duration backoffMax,
+            @Value("${app.mail.outbox.lease:PT5M}") Duration lease
+    ) {
+        this(repository, mailService, transactionManager,
+                Executors.newFixedThreadPool(Math.max(concurrency, 1), daemonThreads()),
+                batchSize, maxAttempts, backoffInitial, backoffMax, lease);
+    }
+
+    MailOutboxDispatcher(MailOutboxRepository repository, MailService mailService,
+                         PlatformTransactionManager transactionManager, Executor sender,
+                         int batchSize, int maxAttempts,
+                         Duration backoffInitial, Duration backoffMax, Duration lease) {
+        this.repository = repository;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sender = sender;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoffInitialMillis = Math.max(backoffInitial.toMillis(), 1);
+        this.backoffMaxMillis = Math.max(backoffMax.toMillis(), this.backoffInitialMillis);
+        this.leaseMillis = Math.max(lease.toMillis(), 1);
+    }
+
+    /** Vide l'outbox : lot après lot, tant que des lots pleins reviennent. */
+    @Scheduled(initialDelayString = "${app.mail.outbox.poll-interval:PT5S}",
+            fixedDelayString = "${app.mail.outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        try {
+            while (dispatchBatch() >= batchSize) {
+                // lot plein : il en reste probablement
+            }
+        } catch (Exception e) {
+            log.error("Outbox e-mail : échec de la réservation d'un lot", e);
+        }
+    }
+
+    /** Réserve et envoie un lot ; retourne le nombre de lignes traitées. */
+    int dispatchBatch() {
+        List<MailOutbox> batch = claim();
+        if (batch.isEmpty()) return 0;
+        // Paquets de perConnection destinataires : les lignes d'un destinataire restent ensemble (digest)
+        int perConnection = mailService.getMaxMessagesPerConnection();
+        Map<String, List<MailOutbox>> byRecipient = new LinkedHashMap<>();
+        batch.forEach(mail -> byRecipient.computeIfAbsent(mail.getRecipient(), r -> new ArrayList<>()).add(mail));
+        List<CompletableFuture<Void>> sessions = new ArrayList<>();
+        List<MailOutbox> chunk = new ArrayList<>();
+        int recipients = 0;
+        for (List<MailOutbox> rows : byRecipient.values()) {
+            if (recipients == perConnection) {
+                sessions.add(send(chunk));
+                chunk = new ArrayList<>();
+                recipients = 0;
+            }
+            chunk.addAll(rows);
+            recipients++;
+        }
+        sessions.add(send(chunk));
+        try {
+            // Attente bornée par le bail : un serveur SMTP muet ne bloque pas le thread @Scheduled partagé
+            CompletableFuture.allOf(sessions.toArray(CompletableFuture[]::new))
+                    .orTimeout(leaseMillis, TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof TimeoutException)) throw e;
+            // Les envois en cours finissent en arrière-plan (timeouts SMTP) ; sinon les lignes repartent à la fin du bail
+            log.warn("Outbox e-mail : lot de {} ligne(s) toujours en cours d'envoi après {} ms, passage interrompu",
+                    batch.size(), leaseMillis);
+            return 0;
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sender instanceof ExecutorService executor) executor.shutdown();
+    }
+
+    /** Délai avant l'essai suivant, après attempts échecs : initial, 2×initial, 4×initial… plafonné. */
+    long backoffMillis(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = backoffInitialMillis << shift;
+        return (delay <= 0 || delay > backoffMaxMillis) ? backoffMaxMillis : delay;
+    }
+
+    public long getSent() { return sent.get(); }
+    public long getRetried() { return retried.get(); }
+    public long getFailed() { return failed.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mpmt.mail.outbox.sent", this, MailOutboxDispatcher::getSent)
+                .description("E-mails de l'outbox envoyés")
+                .register(registry);
+        FunctionCounter.builder("mpmt.mail.outbox.retried", this, MailOutboxDispatcher::getRetried)
+                .description("Échecs d'envoi replanifiés")
+                .register(registry);
+        FunctionCounter.builder("mpmt.mail.outbox.failed", this, MailOutboxDispatcher::getFailed)
+                .description("E-mails abandonnés après max-attempts essais")
+                .register(registry);
+    }
+
+    // ----------------- Helpers -----------------
+
+    /**
+     * Réserve les lignes dues, plus les assignations encore en fenêtre de digest de leurs destinataires :
+     * la première assignation échue entraîne toutes les suivantes dans le même e-mail.
+     */
+    private List<MailOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            Date now = new Date();
+            List<MailOutbox> claimed = new ArrayList<>(repository.lockDue(now, Limit.of(batchSize)));
+            Set<String> recipients = new HashSet<>();
+            Set<Long> ids = new HashSet<>();
+            for (MailOutbox mail : claimed) {
+                ids.add(mail.getId());
+                if (MailService.TASK_ASSIGNED.equals(mail.getTemplate())) recipients.add(mail.getRecipient());
+            }
+            if (!recipients.isEmpty()) {
+                claimed.addAll(repository.lockPendingForRecipients(
+                        MailService.TASK_ASSIGNED, recipients, ids, Limit.of(batchSize)));
+            }
+            Date leaseEnd = new Date(now.getTime() + leaseMillis);
+            claimed.forEach(mail -> mail.setNextAttemptAt(leaseEnd)); // UPDATE au commit
+            return claimed;
+        });
+    }
+
+    private CompletableFuture<Void> send(List<MailOutbox> chunk) {
+        return CompletableFuture.runAsync(() -> sendChunk(chunk), sender);
+    }
+
+    private void sendChunk(List<MailOutbox> chunk) {
+        Map<MailOutbox, Exception> failures = mailService.sendAll(chunk);
+        List<Long> sentIds = new ArrayList<>(chunk.size());
+        for (MailOutbox mail : chunk) {
+            Exception error = failures.get(mail);
+            if (error == null) sentIds.add(mail.getId());
+            else onFailure(mail, error);
+        }
+        if (sentIds.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.markSent(sentIds, new Date()));
+            sent.addAndGet(sentIds.size());
+        } catch (Exception e) {
+            // Partis mais non marqués : renvoyés à la fin du bail (au moins une fois)
+            log.error("Outbox e-mail : {} envoi(s) non marqué(s) SENT", sentIds.size(), e);
+        }
+    }
+
+    private void onFailure(MailOutbox mail, Exception e) {
+        int attempts = mail.getAttempts() + 1;
+        boolean giveUp = attempts >= maxAttempts;
+        Date next = new Date(System.currentTimeMillis() + backoffMillis(attempts));
+        MailOutbox.Status status = giveUp ? MailOutbox.Status.FAILED : MailOutbox.Status.PENDING;
+        try {
+            transactionTemplate.executeWithoutResult(s ->
+                    repository.markFailed(mail.getId(), status, attempts, next, truncate(e.getMessage())));
+        } catch (Exception markError) {
+            // La ligne garde son bail : elle sera reprise à son expiration
+            log.error("Outbox e-mail : échec de mise à jour de la ligne {}", mail.getId(), markError);
+        }
+        if (giveUp) {
+            failed.incrementAndGet();
+            log.error("E-mail {} abandonné après {} essais : {}", mail.getId(), attempts, e.getMessage());
+        } else {
+            retried.incrementAndGet();
+            log.warn("Échec d'envoi de l'e-mail {} (essai {}), nouvel essai à {} : {}",
+                    mail.getId(), attempts, next, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "mail-outbox-" + index.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
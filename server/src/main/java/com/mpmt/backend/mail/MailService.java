@@ -1,17 +1,73 @@
 package com.mpmt.backend.mail;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mpmt.backend.entity.MailOutbox;
 import com.mpmt.backend.entity.Task;
 import com.mpmt.backend.entity.User;
+import com.mpmt.backend.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
-import org.springframework.mail.SimpleMailMessage;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * E-mails de l'application, envoyés via l'outbox (table mail_outbox) :
+ *  - enqueue* écrit la ligne dans la transaction de l'appelant (aucun appel SMTP sur le thread de la requête) ;
+ *  - sendAll est appelé par MailOutboxDispatcher, qui gère concurrence et nouvelles tentatives :
+ *    les messages partent par paquets de max-messages-per-connection sur une seule session SMTP
+ *    (une connexion, un handshake TLS, une authentification par paquet).
+ * Digest : une assignation n'est due qu'après digest.window ; toutes les assignations en attente
+ * d'un même destinataire partent alors dans un seul e-mail récapitulatif (digest.max-items au plus).
+ * Contenu : modèles précompilés de MailTemplates (clé = template de la ligne), envoyés en texte + HTML.
+ */
 @Service
-public class MailService {
+public class MailService implements MeterBinder {
+
+    public static final String TASK_ASSIGNED = "task-assigned";
+    public static final String TASK_ASSIGNED_DIGEST = "task-assigned-digest";
+
+    private static final TypeReference<Map<String, String>> PARAMS_TYPE = new TypeReference<>() {};
 
     private final JavaMailSender sender;
+    private final MailTemplates templates;
+    private final MailOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxMessagesPerConnection;
+    private final long digestWindowMillis;
+    private final int digestMaxItems;
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    // Métriques, créées au bind du registre (absentes en test unitaire)
+    private volatile Timer sessionsOk;
+    private volatile Timer sessionsFailed;
+    private volatile DistributionSummary messagesPerSession;
 
     @Value("${app.frontend.base-url:http://localhost:8080}")
     private String frontendBaseUrl; // déjà OK pour dev
@@ -19,60 +75,204 @@ public class MailService {
     @Value("${app.mail.from:}")
     private String fromEmail; // expéditeur configurable (Single Sender SendGrid)
 
-    public MailService(JavaMailSender sender) {
+    @Autowired
+    public MailService(JavaMailSender sender,
+                       MailTemplates templates,
+                       MailOutboxRepository outboxRepository,
+                       ObjectMapper objectMapper,
+                       @Value("${app.mail.max-messages-per-connection:25}") int maxMessagesPerConnection,
+                       @Value("${app.mail.digest.window:PT2M}") Duration digestWindow,
+                       @Value("${app.mail.digest.max-items:50}") int digestMaxItems) {
         this.sender = sender;
+        this.templates = templates;
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.maxMessagesPerConnection = Math.max(maxMessagesPerConnection, 1);
+        this.digestWindowMillis = Math.max(digestWindow.toMillis(), 0);
+        this.digestMaxItems = Math.max(digestMaxItems, 1);
     }
 
-    /** Envoie un e-mail de notification d'assignation (best-effort, ne jette pas). */
-    public void sendTaskAssignedEmail(Task task, User assignee, @Nullable User assigner) {
+    /**
+     * Met en outbox l'e-mail de notification d'assignation (même transaction que l'assignation),
+     * dû après la fenêtre de digest pour laisser les assignations suivantes s'y regrouper.
+     */
+    public void enqueueTaskAssignedEmail(Task task, User assignee, @Nullable User assigner) {
         if (assignee == null || assignee.getEmail() == null) return;
 
-        String subject = "[MPMT] Nouvelle assignation — Tâche #" + task.getId();
-        String assignerName = (assigner != null && assigner.getUsername() != null)
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("assignee", safe(assignee.getUsername()));
+        params.put("taskId", String.valueOf(task.getId()));
+        params.put("taskTitle", safe(task.getTitle()));
+        params.put("assigner", (assigner != null && assigner.getUsername() != null)
                 ? assigner.getUsername()
-                : "un membre du projet";
+                : "un membre du projet");
+        params.put("link", buildProjectLink(task));
+
+        enqueue(assignee.getEmail(), TASK_ASSIGNED, params, new Date(System.currentTimeMillis() + digestWindowMillis));
+    }
+
+    public MailOutbox enqueue(String recipient, String template, Map<String, String> params, Date notBefore) {
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient(recipient);
+        mail.setTemplate(template);
+        mail.setNextAttemptAt(notBefore);
+        try {
+            mail.setParams(objectMapper.writeValueAsString(params));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Paramètres d'e-mail non sérialisables", e);
+        }
+        return outboxRepository.save(mail);
+    }
+
+    public int getMaxMessagesPerConnection() { return maxMessagesPerConnection; }
+    public long getCoalesced() { return coalesced.get(); }
+
+    /**
+     * Envoie les lignes de l'outbox, max-messages-per-connection par session SMTP ;
+     * les assignations d'un même destinataire sont regroupées en digests.
+     * Ne jette pas : retourne les lignes en échec avec leur erreur (vide si tout est parti).
+     */
+    public Map<MailOutbox, Exception> sendAll(List<MailOutbox> mails) {
+        Map<MailOutbox, Exception> failures = new IdentityHashMap<>();
+        List<List<MailOutbox>> groups = new ArrayList<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (List<MailOutbox> group : coalesce(mails)) {
+            try {
+                MailTemplates.Rendered rendered = group.size() == 1 ? render(group.get(0)) : renderDigest(group);
+                messages.add(toMimeMessage(group.get(0).getRecipient(), rendered));
+                groups.add(group);
+                coalesced.addAndGet(group.size() - 1);
+            } catch (Exception e) {
+                group.forEach(mail -> failures.put(mail, e));
+            }
+        }
+        for (int from = 0; from < messages.size(); from += maxMessagesPerConnection) {
+            int to = Math.min(from + maxMessagesPerConnection, messages.size());
+            sendSession(groups.subList(from, to), messages.subList(from, to), failures);
+        }
+        return failures;
+    }
+
+    /** Regroupe les assignations par destinataire (ordre conservé), par paquets de digest.max-items. */
+    List<List<MailOutbox>> coalesce(List<MailOutbox> mails) {
+        List<List<MailOutbox>> groups = new ArrayList<>();
+        Map<String, List<MailOutbox>> open = new LinkedHashMap<>();
+        for (MailOutbox mail : mails) {
+            if (!TASK_ASSIGNED.equals(mail.getTemplate())) {
+                groups.add(List.of(mail));
+                continue;
+            }
+            List<MailOutbox> group = open.get(mail.getRecipient());
+            if (group == null || group.size() >= digestMaxItems) {
+                group = new ArrayList<>();
+                open.put(mail.getRecipient(), group);
+                groups.add(group);
+            }
+            group.add(mail);
+        }
+        return groups;
+    }
 
-        String link = buildProjectLink(task);
+    /** Rend une ligne de l'outbox avec le modèle de même clé ; jette si le modèle est inconnu. */
+    public MailTemplates.Rendered render(MailOutbox mail) {
+        return templates.render(mail.getTemplate(), readParams(mail));
+    }
 
-        String body = """
-                Bonjour %s,
+    /** Récapitulatif de plusieurs assignations d'un même destinataire. */
+    public MailTemplates.Rendered renderDigest(List<MailOutbox> mails) {
+        List<Map<String, String>> items = new ArrayList<>(mails.size());
+        for (MailOutbox mail : mails) items.add(readParams(mail));
+        Map<String, Object> model = new HashMap<>();
+        model.put("assignee", items.get(0).get("assignee"));
+        model.put("count", mails.size());
+        model.put("items", items);
+        return templates.render(TASK_ASSIGNED_DIGEST, model);
+    }
 
-                Vous avez été assigné·e à la tâche :
-                  • ID : %d
-                  • Titre : %s
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        sessionsOk = Timer.builder("mpmt.mail.send")
+                .description("Sessions SMTP (connexion + envoi d'un paquet de messages)")
+                .tag("outcome", "success")
+                .register(registry);
+        sessionsFailed = Timer.builder("mpmt.mail.send")
+                .description("Sessions SMTP (connexion + envoi d'un paquet de messages)")
+                .tag("outcome", "failure")
+                .register(registry);
+        messagesPerSession = DistributionSummary.builder("mpmt.mail.send.messages")
+                .description("Messages envoyés par session SMTP")
+                .register(registry);
+        FunctionCounter.builder("mpmt.mail.digest.coalesced", this, MailService::getCoalesced)
+                .description("E-mails évités par regroupement en digest")
+                .register(registry);
+    }
 
-                Assignée par : %s
-                Lien : %s
+    // ----------------- Helpers -----------------
 
-                -- MPMT
-                """.formatted(
-                safe(assignee.getUsername()),
-                task.getId(),
-                safe(task.getTitle()),
-                assignerName,
-                link
-        );
+    /** Un paquet = un appel sender.send(...) = une connexion SMTP pour tous ses messages. */
+    private void sendSession(List<List<MailOutbox>> groups, List<MimeMessage> messages,
+                             Map<MailOutbox, Exception> failures) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            sender.send(messages.toArray(MimeMessage[]::new));
+            ok = true;
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                groups.forEach(group -> group.forEach(mail -> failures.put(mail, e)));
+            } else {
+                // Clés = MimeMessage envoyés : on retrouve les lignes de chacun
+                for (int i = 0; i < messages.size(); i++) {
+                    Exception error = failed.get(messages.get(i));
+                    if (error != null) groups.get(i).forEach(mail -> failures.put(mail, error));
+                }
+            }
+        } catch (MailException e) {
+            // Authentification refusée, etc. : rien n'est parti
+            groups.forEach(group -> group.forEach(mail -> failures.put(mail, e)));
+        } finally {
+            record(System.nanoTime() - start, ok, messages.size());
+        }
+    }
 
+    private void record(long nanos, boolean ok, int messages) {
+        Timer timer = ok ? sessionsOk : sessionsFailed;
+        if (timer != null) timer.record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary summary = messagesPerSession;
+        if (summary != null) summary.record(messages);
+    }
+
+    /** multipart/alternative texte + HTML si le modèle a une version HTML, texte seul sinon. */
+    private MimeMessage toMimeMessage(String recipient, MailTemplates.Rendered rendered) {
+        MimeMessage message = sender.createMimeMessage();
         try {
-            SimpleMailMessage msg = new SimpleMailMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, rendered.html() != null, StandardCharsets.UTF_8.name());
             if (fromEmail != null && !fromEmail.isBlank()) {
-                msg.setFrom(fromEmail); // requis par SendGrid Single Sender
+                helper.setFrom(fromEmail); // requis par SendGrid Single Sender
             }
-            msg.setTo(assignee.getEmail());
-            msg.setSubject(subject);
-            msg.setText(body);
-            sender.send(msg);
-        } catch (Exception e) {
-            System.out.println("[MailService] Échec d’envoi e-mail d’assignation: " + e.getMessage());
+            helper.setTo(recipient);
+            helper.setSubject(rendered.subject());
+            if (rendered.html() != null) helper.setText(rendered.text(), rendered.html());
+            else helper.setText(rendered.text());
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Message invalide pour " + recipient, e);
         }
+        return message;
     }
 
-    private String buildProjectLink(Task task) {
+    private Map<String, String> readParams(MailOutbox mail) {
         try {
-            if (task != null && task.getProject() != null && task.getProject().getId() != null) {
-                return frontendBaseUrl + "/projects/" + task.getProject().getId();
-            }
-        } catch (Exception ignored) {}
+            return objectMapper.readValue(mail.getParams(), PARAMS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Paramètres illisibles pour l'e-mail " + mail.getId(), e);
+        }
+    }
+
+    private String buildProjectLink(Task task) {
+        if (task != null && task.getProjectId() != null) {
+            return frontendBaseUrl + "/projects/" + task.getProjectId();
+        }
         return frontendBaseUrl + "/dashboard";
     }
 
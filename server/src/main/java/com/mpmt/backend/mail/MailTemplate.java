@@ -0,0 +1,120 @@
+package com.mpmt.backend.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modèle d'e-mail compilé une fois (au démarrage) en une liste de segments :
+ *  - texte littéral, copié tel quel ;
+ *  - {{nom}} : valeur du paramètre (échappée en HTML si le modèle est HTML) ;
+ *  - {{#nom}} ... {{/nom}} : section répétée pour chaque élément de la liste nom
+ *    (les paramètres de l'élément masquent ceux du niveau supérieur).
+ * Le rendu ne fait qu'ajouter des segments à un StringBuilder fourni par l'appelant (réutilisable).
+ */
+public final class MailTemplate {
+
+    private sealed interface Segment permits Text, Var, Section {}
+    private record Text(String text) implements Segment {}
+    private record Var(String name) implements Segment {}
+    private record Section(String name, List<Segment> body) implements Segment {}
+
+    private final String name;
+    private final boolean html;
+    private final List<Segment> segments;
+
+    private MailTemplate(String name, boolean html, List<Segment> segments) {
+        this.name = name;
+        this.html = html;
+        this.segments = segments;
+    }
+
+    /** Compile le source ; jette IllegalArgumentException sur une balise mal formée ou une section non fermée. */
+    public static MailTemplate compile(String name, String source, boolean html) {
+        List<List<Segment>> stack = new ArrayList<>();
+        List<String> open = new ArrayList<>();
+        List<Segment> current = new ArrayList<>();
+        int pos = 0;
+        while (pos < source.length()) {
+            int start = source.indexOf("{{", pos);
+            if (start < 0) {
+                current.add(new Text(source.substring(pos)));
+                break;
+            }
+            if (start > pos) current.add(new Text(source.substring(pos, start)));
+            int end = source.indexOf("}}", start);
+            if (end < 0) throw new IllegalArgumentException(name + " : balise non fermée à la position " + start);
+            String tag = source.substring(start + 2, end).strip();
+            if (tag.startsWith("#")) {
+                stack.add(current);
+                open.add(tag.substring(1).strip());
+                current = new ArrayList<>();
+            } else if (tag.startsWith("/")) {
+                String closing = tag.substring(1).strip();
+                if (open.isEmpty() || !open.get(open.size() - 1).equals(closing)) {
+                    throw new IllegalArgumentException(name + " : fermeture inattendue de la section " + closing);
+                }
+                Section section = new Section(open.remove(open.size() - 1), List.copyOf(current));
+                current = stack.remove(stack.size() - 1);
+                current.add(section);
+            } else if (!tag.isEmpty()) {
+                current.add(new Var(tag));
+            } else {
+                throw new IllegalArgumentException(name + " : balise vide à la position " + start);
+            }
+            pos = end + 2;
+        }
+        if (!open.isEmpty()) throw new IllegalArgumentException(name + " : section non fermée " + open.get(0));
+        return new MailTemplate(name, html, List.copyOf(current));
+    }
+
+    public String getName() { return name; }
+    public boolean isHtml() { return html; }
+
+    /** Ajoute le rendu du modèle à out ; un paramètre absent est rendu vide. */
+    public void render(Map<String, ?> model, StringBuilder out) {
+        render(segments, model, null, out);
+    }
+
+    private void render(List<Segment> body, Map<String, ?> model, Map<String, ?> parent, StringBuilder out) {
+        for (Segment segment : body) {
+            if (segment instanceof Text t) {
+                out.append(t.text());
+            } else if (segment instanceof Var v) {
+                Object value = lookup(v.name(), model, parent);
+                if (value != null) append(value.toString(), out);
+            } else if (segment instanceof Section s && lookup(s.name(), model, parent) instanceof Iterable<?> items) {
+                for (Object item : items) {
+                    if (item instanceof Map<?, ?> itemModel) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, ?> nested = (Map<String, ?>) itemModel;
+                        render(s.body(), nested, model, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object lookup(String key, Map<String, ?> model, Map<String, ?> parent) {
+        Object value = model.get(key);
+        return (value == null && parent != null) ? parent.get(key) : value;
+    }
+
+    private void append(String value, StringBuilder out) {
+        if (!html) {
+            out.append(value);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.mpmt.backend.mail;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modèles d'e-mail, lus et compilés une fois au démarrage (classpath:mail/templates/) :
+ * chaque {clé}.subject.txt trouvé déclare une clé, avec {clé}.txt et, facultatif, {clé}.html à côté.
+ * Un nouveau type d'e-mail = ces fichiers + un appel à MailService.enqueue, sans liste à tenir ici.
+ * Un modèle incomplet ou mal formé empêche le démarrage. Le rendu réutilise un tampon par thread.
+ */
+@Component
+public class MailTemplates {
+
+    /** Sujet, texte brut et HTML (null si le modèle n'a pas de version HTML). */
+    public record Rendered(String subject, String text, @Nullable String html) {}
+
+    private record Compiled(MailTemplate subject, MailTemplate text, @Nullable MailTemplate html) {}
+
+    private static final String LOCATION = "mail/templates/";
+    private static final String SUBJECT_SUFFIX = ".subject.txt";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    private final Map<String, Compiled> templates = new HashMap<>();
+
+    public MailTemplates() {
+        Resource[] subjects;
+        try {
+            subjects = new PathMatchingResourcePatternResolver().getResources("classpath*:" + LOCATION + "*" + SUBJECT_SUFFIX);
+        } catch (IOException e) {
+            throw new IllegalStateException("Recherche impossible des modèles d'e-mail dans " + LOCATION, e);
+        }
+        for (Resource subject : subjects) {
+            String file = subject.getFilename();
+            if (file == null) continue;
+            String key = file.substring(0, file.length() - SUBJECT_SUFFIX.length());
+            String html = read(subject, key + ".html", false);
+            templates.put(key, new Compiled(
+                    MailTemplate.compile(file, read(subject, file, true), false),
+                    MailTemplate.compile(key + ".txt", read(subject, key + ".txt", true), false),
+                    html == null ? null : MailTemplate.compile(key + ".html", html, true)));
+        }
+        if (templates.isEmpty()) throw new IllegalStateException("Aucun modèle d'e-mail dans classpath:" + LOCATION);
+    }
+
+    /** Clés des modèles chargés. */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(templates.keySet());
+    }
+
+    /** Rend le modèle key ; jette IllegalArgumentException si la clé est inconnue. */
+    public Rendered render(String key, Map<String, ?> model) {
+        Compiled compiled = templates.get(key);
+        if (compiled == null) throw new IllegalArgumentException("Modèle d'e-mail inconnu : " + key);
+        return new Rendered(
+                render(compiled.subject(), model).strip(),
+                render(compiled.text(), model),
+                compiled.html() == null ? null : render(compiled.html(), model));
+    }
+
+    private static String render(MailTemplate template, Map<String, ?> model) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        template.render(model, buffer);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) BUFFER.remove(); // pas de gros tampon gardé par thread
+        return result;
+    }
+
+    /** Lit le fichier file du même répertoire que sibling. */
+    private static String read(Resource sibling, String file, boolean required) {
+        Resource resource;
+        try {
+            resource = sibling.createRelative(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Lecture impossible du modèle " + LOCATION + file, e);
+        }
+        if (!resource.exists()) {
+            if (required) throw new IllegalStateException("Modèle d'e-mail introuvable : " + LOCATION + file);
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Lecture impossible du modèle " + LOCATION + file, e);
+        }
+    }
+}
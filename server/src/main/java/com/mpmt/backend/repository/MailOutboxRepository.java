@@ -0,0 +1,52 @@
+package com.mpmt.backend.repository;
+
+import com.mpmt.backend.entity.MailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    // Lignes dues, verrouillées ; lock.timeout = -2 : SKIP LOCKED, deux dispatchers ne prennent jamais la même ligne
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from MailOutbox m where m.status = com.mpmt.backend.entity.MailOutbox.Status.PENDING " +
+            "and m.nextAttemptAt <= :now order by m.nextAttemptAt, m.id")
+    List<MailOutbox> lockDue(@Param("now") Date now, Limit limit);
+
+    // Digest : autres lignes en attente des mêmes destinataires, échues ou non (ids = lignes déjà réservées)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from MailOutbox m where m.status = com.mpmt.backend.entity.MailOutbox.Status.PENDING " +
+            "and m.template = :template and m.recipient in :recipients and m.id not in :ids order by m.id")
+    List<MailOutbox> lockPendingForRecipients(@Param("template") String template,
+                                              @Param("recipients") Collection<String> recipients,
+                                              @Param("ids") Collection<Long> ids,
+                                              Limit limit);
+
+    @Modifying
+    @Query("update MailOutbox m set m.status = com.mpmt.backend.entity.MailOutbox.Status.SENT, " +
+            "m.sentAt = :sentAt, m.attempts = m.attempts + 1, m.lastError = null where m.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Date sentAt);
+
+    @Modifying
+    @Query("update MailOutbox m set m.status = :status, m.attempts = :attempts, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error where m.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("status") MailOutbox.Status status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") Date nextAttemptAt,
+                   @Param("error") String error);
+
+    long countByStatus(MailOutbox.Status status);
+}
@@ -1,12 +1,73 @@
 package com.mpmt.backend.repository;
 
+import com.mpmt.backend.DTO.NotificationSummary;
+import com.mpmt.backend.DTO.UserUnreadCount;
 import com.mpmt.backend.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserId(Long userId);
     List<Notification> findByTaskId(Long taskId);
     List<Notification> findByUserIdAndReadFalse(Long userId);
+    long countByUserIdAndReadFalse(Long userId);
+
+    // Réconciliation des compteurs de non lues : un group by pour un lot d'utilisateurs (absents = 0)
+    @Query("select new com.mpmt.backend.DTO.UserUnreadCount(n.userId, count(n)) from Notification n " +
+            "where n.read = false and n.userId in :userIds group by n.userId")
+    List<UserUnreadCount> countUnreadByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // Rattrapage d'une connexion SSE (Last-Event-ID) : notifications envoyées depuis sentAt, dans l'ordre (sentAt, id)
+    List<Notification> findByUserIdAndSentAtGreaterThanEqualOrderBySentAtAscIdAsc(Long userId, Date sentAt, Limit limit);
+
+    // Fil des notifications, plus récentes d'abord : première page puis pages suivantes (keyset sur sentAt, id).
+    // n.sentAt <= :sentAt, redondant avec le OR, borne le parcours de l'index (user_id, read, sent_at, id).
+    // readStates = [false] pour les non lues seules, [false, true] pour toutes.
+    @Query("select new com.mpmt.backend.DTO.NotificationSummary(n.id, n.taskId, n.content, n.read, n.sentAt) " +
+            "from Notification n where n.userId = :userId and n.read in :readStates " +
+            "order by n.sentAt desc, n.id desc")
+    List<NotificationSummary> findFeed(@Param("userId") Long userId,
+                                       @Param("readStates") Collection<Boolean> readStates,
+                                       Limit limit);
+
+    @Query("select new com.mpmt.backend.DTO.NotificationSummary(n.id, n.taskId, n.content, n.read, n.sentAt) " +
+            "from Notification n where n.userId = :userId and n.read in :readStates " +
+            "and n.sentAt <= :sentAt and (n.sentAt < :sentAt or (n.sentAt = :sentAt and n.id < :id)) " +
+            "order by n.sentAt desc, n.id desc")
+    List<NotificationSummary> findFeedAfter(@Param("userId") Long userId,
+                                            @Param("readStates") Collection<Boolean> readStates,
+                                            @Param("sentAt") Date sentAt,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    // Destinataire seul (compteurs de non lues), sans charger l'entité
+    @Query("select n.userId from Notification n where n.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    // Lecture / suppression conditionnelles : 1 ligne = c'est cet appel qui a fait passer la notification
+    // de non lue à lue (ou supprimé une non lue), même avec des appels concurrents
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.read = true where n.id = :id and n.read = false")
+    int markReadById(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Notification n where n.id = :id and n.read = :read")
+    int deleteByIdAndRead(@Param("id") Long id, @Param("read") boolean read);
+
+    // Lecture en masse : un seul UPDATE, seules les non lues sont touchées (le nombre retourné = non lues en moins)
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.read = false")
+    int markAllReadByUserId(@Param("userId") Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.id in :ids and n.read = false")
+    int markReadByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 }
@@ -21,6 +21,7 @@
 
 package com.mpmt.backend.repository;
 
+import com.mpmt.backend.DTO.MembershipRole;
 import com.mpmt.backend.entity.ProjectMember;
 import com.mpmt.backend.entity.Project;
 import com.mpmt.backend.entity.User;
@@ -44,4 +45,8 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Lo
     Optional<ProjectMember> findByUser_IdAndProject_Id(Long userId, Long projectId);
 
     boolean existsByProject_IdAndUser_Id(Long projectId, Long userId);
+
+    // Index d'autorisation : (projectId, role) de toutes les appartenances d'un utilisateur
+    @Query("select new com.mpmt.backend.DTO.MembershipRole(pm.project.id, pm.role) from ProjectMember pm where pm.user.id = :userId")
+    List<MembershipRole> findRolesByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.mpmt.backend.repository;
+
+import com.mpmt.backend.DTO.DeletedTask;
+
+import java.util.Optional;
+
+/** Fragment de TaskRepository : suppression d'une tâche en une seule requête. */
+public interface TaskDeleteRepository {
+
+    /**
+     * Supprime la tâche ; vide si elle n'existe pas. Sous PostgreSQL (DELETE ... RETURNING), le résultat porte
+     * le projet et le statut supprimés et les utilisateurs dont des notifications non lues partent en cascade ;
+     * ailleurs seul l'id est renseigné.
+     */
+    Optional<DeletedTask> deleteReturningStatus(Long id);
+}
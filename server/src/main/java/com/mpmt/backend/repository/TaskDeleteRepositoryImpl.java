@@ -0,0 +1,66 @@
+package com.mpmt.backend.repository;
+
+import com.mpmt.backend.DTO.DeletedTask;
+import com.mpmt.backend.entity.StatusType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Une requête par suppression : le nombre de lignes dit 404 ou non, sans lecture préalable.
+ * PostgreSQL renvoie en plus (project_id, status) de la ligne supprimée pour les compteurs par statut, et les
+ * destinataires de notifications non lues sur la tâche : la sous-requête lit l'instantané de début de requête,
+ * avant que la cascade de fk_notification_task ne supprime ces notifications.
+ */
+public class TaskDeleteRepositoryImpl implements TaskDeleteRepository {
+
+    private static final String DELETE_RETURNING = """
+            WITH deleted AS (DELETE FROM tasks WHERE id = :id RETURNING project_id, status)
+            SELECT d.project_id, d.status,
+                   (SELECT string_agg(DISTINCT CAST(n.user_id AS varchar), ',')
+                      FROM notification n
+                     WHERE n.task_id = :id AND n.read = false)
+              FROM deleted d
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Base réelle (pas le dialecte : les tests JPA gardent PostgreSQLDialect sur H2), lue une fois
+    private volatile Boolean postgres;
+
+    @Override
+    public Optional<DeletedTask> deleteReturningStatus(Long id) {
+        if (!isPostgres()) {
+            int deleted = entityManager.createQuery("delete from Task t where t.id = :id")
+                    .setParameter("id", id)
+                    .executeUpdate();
+            return deleted == 0 ? Optional.empty() : Optional.of(DeletedTask.idOnly(id));
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager
+                .createNativeQuery(DELETE_RETURNING)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) return Optional.empty();
+        Object[] row = rows.get(0);
+        List<Long> unreadUserIds = row[2] == null ? List.of()
+                : Arrays.stream(((String) row[2]).split(",")).map(Long::valueOf).toList();
+        return Optional.of(new DeletedTask(id, ((Number) row[0]).longValue(),
+                StatusType.valueOf((String) row[1]), unreadUserIds));
+    }
+
+    private boolean isPostgres() {
+        Boolean p = postgres;
+        if (p == null) {
+            p = entityManager.unwrap(Session.class)
+                    .doReturningWork(c -> "PostgreSQL".equals(c.getMetaData().getDatabaseProductName()));
+            postgres = p;
+        }
+        return p;
+    }
+}
@@ -1,12 +1,68 @@
 package com.mpmt.backend.repository;
 
+import com.mpmt.backend.DTO.ProjectStatusCount;
+import com.mpmt.backend.DTO.StatusCount;
+import com.mpmt.backend.DTO.TaskStatusRow;
+import com.mpmt.backend.DTO.TaskSummary;
 import com.mpmt.backend.entity.StatusType;
 import com.mpmt.backend.entity.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskSearchRepository, TaskDeleteRepository {
     List<Task> findByProject_Id(Long projectId);
     List<Task> findByProject_IdAndStatus(Long projectId, StatusType status);
+
+    // Pagination keyset sur l'id : "where id > :afterId order by id limit n", pas d'offset ni de count
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Tâches assignées à un utilisateur : project_member -> task_assignment -> tasks en une requête, keyset sur l'id
+    @Query("select distinct new com.mpmt.backend.DTO.TaskSummary(t.id, t.project.id, t.name, t.description, " +
+            "t.status, t.priority, t.dueDate, t.endDate) " +
+            "from ProjectMember pm, TaskAssignment a, Task t " +
+            "where pm.user.id = :userId and a.projectMemberId = pm.id and t.id = a.taskId and t.id > :afterId " +
+            "order by t.id")
+    List<TaskSummary> findAssignedToUser(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    // Lecture par curseur JDBC (à consommer dans une transaction, puis fermer le Stream)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Task t where t.id > :afterId order by t.id")
+    Stream<Task> streamByIdGreaterThan(@Param("afterId") Long afterId);
+
+    // Lit uniquement la FK project_id (pas de chargement de l'entité Task)
+    @Query("select t.project.id from Task t where t.id = :taskId")
+    Optional<Long> findProjectIdById(@Param("taskId") Long taskId);
+
+    // Agrégation côté base : une ligne par statut, aucune entité Task matérialisée
+    @Query("select new com.mpmt.backend.DTO.StatusCount(t.status, count(t)) " +
+            "from Task t where t.project.id = :projectId group by t.status")
+    List<StatusCount> countByStatusForProject(@Param("projectId") Long projectId);
+
+    // Même agrégation pour tous les projets en une requête (réconciliation des compteurs)
+    @Query("select new com.mpmt.backend.DTO.ProjectStatusCount(t.project.id, t.status, count(t)) " +
+            "from Task t group by t.project.id, t.status")
+    List<ProjectStatusCount> countByProjectAndStatus();
+
+    // Changement de statut en masse : lignes verrouillées (select ... for update) pour lire l'ancien statut remplacé
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.mpmt.backend.DTO.TaskStatusRow(t.id, t.project.id, t.status) " +
+            "from Task t where t.id in :ids and t.status <> :status order by t.id")
+    List<TaskStatusRow> lockStatusesToChange(@Param("ids") Collection<Long> ids, @Param("status") StatusType status);
+
+    // Un seul UPDATE pour toutes les lignes verrouillées ci-dessus (version incrémentée : les ETag changent)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.status = :status, t.version = t.version + 1 where t.id in :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") StatusType status);
 }
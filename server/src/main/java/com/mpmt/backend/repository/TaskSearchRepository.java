@@ -0,0 +1,13 @@
+package com.mpmt.backend.repository;
+
+import com.mpmt.backend.DTO.TaskSearchCriteria;
+import com.mpmt.backend.DTO.TaskSummary;
+
+import java.util.List;
+
+/** Fragment de TaskRepository : recherche filtrée et paginée des tâches d'un projet. */
+public interface TaskSearchRepository {
+
+    /** Au plus limit tâches correspondant aux critères, après le curseur, projetées en TaskSummary. */
+    List<TaskSummary> search(TaskSearchCriteria criteria, int limit);
+}
@@ -0,0 +1,103 @@
+package com.mpmt.backend.repository;
+
+import com.mpmt.backend.DTO.TaskSearchCriteria;
+import com.mpmt.backend.DTO.TaskSummary;
+import com.mpmt.backend.entity.ProjectMember;
+import com.mpmt.backend.entity.Task;
+import com.mpmt.backend.entity.TaskAssignment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Requête Criteria : filtres + keyset + projection TaskSummary (aucune entité Task chargée).
+ * Tri ID : une requête sur l'index tasks(project_id, id).
+ * Tri DUE_DATE ("sans échéance en dernier") : deux parcours de plage de l'index tasks(project_id, due_date, id),
+ * sans tri ni OR sur due_date is null, que la base ne saurait servir depuis l'index :
+ *  1) tâches datées après le curseur, par (due_date, id) ;
+ *  2) si la page n'est pas pleine, tâches sans échéance par id.
+ */
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    /** Portion de l'ordre parcourue par une requête. */
+    private enum Segment { BY_ID, DATED, UNDATED }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskSummary> search(TaskSearchCriteria c, int limit) {
+        if (c.sort() != TaskSearchCriteria.Sort.DUE_DATE) return select(c, Segment.BY_ID, limit);
+
+        TaskSearchCriteria.Cursor after = c.after();
+        List<TaskSummary> page = new ArrayList<>(limit);
+        if (after == null || after.dueDate() != null) page.addAll(select(c, Segment.DATED, limit));
+        // Un filtre d'échéance exclut les tâches sans échéance
+        if (page.size() < limit && c.dueFrom() == null && c.dueTo() == null) {
+            page.addAll(select(c, Segment.UNDATED, limit - page.size()));
+        }
+        return page;
+    }
+
+    private List<TaskSummary> select(TaskSearchCriteria c, Segment segment, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummary> query = cb.createQuery(TaskSummary.class);
+        Root<Task> t = query.from(Task.class);
+
+        Path<Long> id = t.get("id");
+        Path<LocalDate> dueDate = t.get("dueDate");
+        Path<Long> projectId = t.get("project").get("id"); // lit la FK, pas de jointure
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(projectId, c.projectId()));
+        if (c.statuses() != null && !c.statuses().isEmpty()) where.add(t.get("status").in(c.statuses()));
+        if (c.priorities() != null && !c.priorities().isEmpty()) where.add(t.get("priority").in(c.priorities()));
+        if (c.dueFrom() != null) where.add(cb.greaterThanOrEqualTo(dueDate, c.dueFrom()));
+        if (c.dueTo() != null) where.add(cb.lessThanOrEqualTo(dueDate, c.dueTo()));
+        if (c.assigneeId() != null) where.add(id.in(assignedTaskIds(query, cb, c.assigneeId())));
+
+        TaskSearchCriteria.Cursor after = c.after();
+        switch (segment) {
+            case DATED -> {
+                where.add(cb.isNotNull(dueDate));
+                if (after != null) {
+                    // Borne de plage sur due_date, puis (due_date, id) strictement après le curseur
+                    where.add(cb.greaterThanOrEqualTo(dueDate, after.dueDate()));
+                    where.add(cb.or(cb.greaterThan(dueDate, after.dueDate()), cb.greaterThan(id, after.id())));
+                }
+                query.orderBy(cb.asc(dueDate), cb.asc(id));
+            }
+            case UNDATED -> {
+                where.add(cb.isNull(dueDate));
+                // Curseur encore dans les tâches datées : les sans échéance repartent du début
+                if (after != null && after.dueDate() == null) where.add(cb.greaterThan(id, after.id()));
+                query.orderBy(cb.asc(id));
+            }
+            case BY_ID -> {
+                if (after != null) where.add(cb.greaterThan(id, after.id()));
+                query.orderBy(cb.asc(id));
+            }
+        }
+
+        query.select(cb.construct(TaskSummary.class,
+                        id, projectId, t.get("name"), t.get("description"),
+                        t.get("status"), t.get("priority"), dueDate, t.get("endDate")))
+                .where(where.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /** Ids des tâches assignées à l'utilisateur (TaskAssignment -> ProjectMember.user). */
+    private Subquery<Long> assignedTaskIds(CriteriaQuery<?> query, CriteriaBuilder cb, Long userId) {
+        Subquery<Long> sub = query.subquery(Long.class);
+        Root<TaskAssignment> a = sub.from(TaskAssignment.class);
+        Root<ProjectMember> pm = sub.from(ProjectMember.class);
+        return sub.select(a.get("taskId"))
+                .where(cb.equal(pm.get("id"), a.get("projectMemberId")),
+                        cb.equal(pm.get("user").get("id"), userId));
+    }
+}
@@ -2,6 +2,9 @@ package com.mpmt.backend.repository;
 
 import com.mpmt.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -10,4 +13,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 
+    // Un seul DELETE (pas de select préalable) : 0 ligne supprimée = utilisateur inexistant
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
 }
@@ -1,10 +1,15 @@
 package com.mpmt.backend.security;
 
+import com.mpmt.backend.config.RequestMdcFilter;
 import com.mpmt.backend.service.UserService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,13 +24,17 @@ import java.io.IOException;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
+
     private final JwtService jwtService;
     private final UserService userService;
+    private final VerifiedTokenCache tokenCache;
 
     @Autowired
-    public JwtAuthFilter(JwtService jwtService, UserService userService) {
+    public JwtAuthFilter(JwtService jwtService, UserService userService, VerifiedTokenCache tokenCache) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.tokenCache = tokenCache;
     }
 
     @Override
@@ -43,40 +52,44 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         // Skip JWT validation for public endpoints
         String path = request.getRequestURI();
-        System.out.println("=== JWT Filter - Path: " + path);
+        log.debug("JWT filter - path: {}", path);
 
         if (path.startsWith("/api/auth/")
                 || path.startsWith("/auth/")           // si jamais des routes /auth/ non /api existent
                 || path.startsWith("/hello")
                 || path.startsWith("/api/hello")
-                || path.startsWith("/actuator/")) {
-            System.out.println("=== Skipping JWT for public endpoint");
+                || path.equals("/actuator/health")
+                || path.startsWith("/actuator/health/")) { // les autres endpoints actuator exigent un ADMIN authentifié
+            log.debug("Skipping JWT for public endpoint");
             filterChain.doFilter(request, response);
             return;
         }
 
         final String authHeader = request.getHeader("Authorization");
-        System.out.println("=== Authorization Header: " + (authHeader != null ? "Present" : "Missing"));
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("=== No valid Authorization header, continuing without auth");
+            log.debug("No valid Authorization header, continuing without auth");
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
             final String jwt = authHeader.substring(7);
-            System.out.println("=== JWT extracted, length: " + jwt.length());
 
-            final String userEmail = jwtService.extractEmail(jwt);
-            System.out.println("=== Email extracted: " + userEmail);
+            // Token déjà vérifié récemment -> aucun parse ni contrôle de signature
+            var verified = tokenCache.get(jwt);
+            if (verified == null) {
+                // Un seul parse : signature + expiration vérifiées (JwtException sinon)
+                var jwtClaims = jwtService.verify(jwt);
+                verified = tokenCache.put(jwt, jwtClaims.subject(), jwtClaims.expiration());
+            }
+
+            final String userEmail = verified.subject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userOpt = userService.getUserByEmail(userEmail);
-                System.out.println("=== User found in DB: " + userOpt.isPresent());
+                var userOpt = userService.getPrincipalByEmail(userEmail);
 
-                if (userOpt.isPresent() && jwtService.isTokenValid(jwt, userEmail)) {
-                    System.out.println("=== Token valid, authenticating user");
+                if (userOpt.isPresent()) {
                     var user = userOpt.get();
 
                     // Map RoleType -> GrantedAuthority "ROLE_<ROLE>"
@@ -90,14 +103,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    System.out.println("=== Authentication successful");
+                    if (user.getId() != null) {
+                        MDC.put(RequestMdcFilter.MDC_USER_ID, user.getId().toString());
+                    }
+                    log.debug("Authentication successful");
                 } else {
-                    System.out.println("=== Token validation failed");
+                    log.debug("Token subject not found, request stays anonymous");
                 }
             }
+        } catch (JwtException e) {
+            log.debug("Invalid JWT: {}", e.getMessage());
         } catch (Exception e) {
-            System.err.println("=== JWT Filter ERROR: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("JWT filter error", e);
         }
 
         filterChain.doFilter(request, response);
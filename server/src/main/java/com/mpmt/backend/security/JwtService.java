@@ -15,11 +15,20 @@ public class JwtService {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24; // 24h
     private static final String SECRET = "my-super-secret-key-for-jwt-signing-which-should-be-very-long";
 
+    /** Résultat d'une vérification : sujet (email) + expiration, obtenus en un seul parse. */
+    public record VerifiedJwt(String subject, Date expiration) {}
+
     private Key key;
 
+    // Parser immuable et thread-safe : construit une fois, partagé par toutes les requêtes
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String generateToken(String email) {
@@ -31,25 +40,42 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Vérifie signature + expiration et retourne sujet et expiration en un seul parse.
+     * Lève une JwtException si le token est invalide ou expiré.
+     */
+    public VerifiedJwt verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedJwt(claims.getSubject(), claims.getExpiration());
+    }
+
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public boolean isTokenValid(String token, String userEmail) {
-        String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(userEmail)) && !isTokenExpired(token);
+        VerifiedJwt verified = verify(token);
+        return verified.subject().equals(userEmail) && !isExpired(verified.expiration());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    /**
+     * Vérifie signature + expiration et retourne tous les claims en un seul parse.
+     * Lève une JwtException si le token est invalide ou expiré.
+     */
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /** Clé de signature (utilisée par les benchmarks pour rejouer l'ancien chemin). */
+    Key signingKey() {
+        return key;
+    }
+
+    private boolean isExpired(Date expiration) {
+        return expiration != null && expiration.before(new Date());
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(extractAllClaims(token));
     }
 }
@@ -0,0 +1,91 @@
+package com.mpmt.backend.security;
+
+import com.mpmt.backend.DTO.MembershipRole;
+import com.mpmt.backend.entity.RoleType;
+import com.mpmt.backend.repository.ProjectMemberRepository;
+import com.mpmt.backend.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index en mémoire des autorisations projet, utilisé par ProjectSecurity et TaskSecurity :
+ *  - userId -> (projectId -> rôle), chargé en une requête par utilisateur ;
+ *  - taskId -> projectId, pour les @PreAuthorize("@taskSecurity.canAccessTask(#taskId)").
+ * Cache chaud = zéro requête DB. Invalidé par ProjectMemberService à chaque écriture de membre.
+ * Les ids n'étant jamais réutilisés, une entrée restée pour une tâche/un projet supprimé
+ * ne donne accès qu'à une ressource qui n'existe plus (le contrôleur répond 404/vide).
+ */
+@Component
+public class ProjectMembershipIndex {
+
+    private final ProjectMemberRepository projectMemberRepository;
+    private final TaskRepository taskRepository;
+    private final int maxEntries;
+
+    private final Map<Long, Map<Long, RoleType>> rolesByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Long> projectByTask = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProjectMembershipIndex(
+            ProjectMemberRepository projectMemberRepository,
+            TaskRepository taskRepository,
+            @Value("${app.security.membership-index.max-entries:100000}") int maxEntries
+    ) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.taskRepository = taskRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    /** Rôle de l'utilisateur dans le projet, vide s'il n'en est pas membre. */
+    public Optional<RoleType> roleOf(Long userId, Long projectId) {
+        if (userId == null || projectId == null) return Optional.empty();
+        return Optional.ofNullable(rolesOf(userId).get(projectId));
+    }
+
+    public boolean isMember(Long userId, Long projectId) {
+        return roleOf(userId, projectId).isPresent();
+    }
+
+    /** Projet de la tâche, null si la tâche n'existe pas. */
+    public Long projectIdOfTask(Long taskId) {
+        if (taskId == null) return null;
+        Long cached = projectByTask.get(taskId);
+        if (cached != null) return cached;
+
+        Long projectId = taskRepository.findProjectIdById(taskId).orElse(null);
+        if (projectId != null) {
+            if (projectByTask.size() >= maxEntries) projectByTask.clear(); // borne mémoire
+            projectByTask.put(taskId, projectId);
+        }
+        return projectId;
+    }
+
+    public void invalidateUser(Long userId) {
+        if (userId != null) rolesByUser.remove(userId);
+    }
+
+    public void clear() {
+        rolesByUser.clear();
+        projectByTask.clear();
+    }
+
+    private Map<Long, RoleType> rolesOf(Long userId) {
+        Map<Long, RoleType> roles = rolesByUser.get(userId);
+        if (roles != null) return roles;
+
+        if (rolesByUser.size() >= maxEntries) rolesByUser.clear(); // borne mémoire
+        // computeIfAbsent : une invalidation concurrente attend la fin du chargement
+        return rolesByUser.computeIfAbsent(userId, id -> {
+            Map<Long, RoleType> loaded = new ConcurrentHashMap<>();
+            for (MembershipRole m : projectMemberRepository.findRolesByUserId(id)) {
+                loaded.put(m.projectId(), m.role());
+            }
+            return loaded;
+        });
+    }
+}
@@ -2,29 +2,26 @@
 package com.mpmt.backend.security;
 
 import com.mpmt.backend.entity.Project;
-import com.mpmt.backend.entity.ProjectMember;
 import com.mpmt.backend.entity.RoleType;
 import com.mpmt.backend.entity.User;
-import com.mpmt.backend.service.ProjectMemberService;
 import com.mpmt.backend.service.ProjectService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.Optional;
 
 @Component
 public class ProjectSecurity {
 
     private final ProjectService projectService;
-    private final ProjectMemberService projectMemberService;
+    private final ProjectMembershipIndex membershipIndex;
 
     @Autowired
-    public ProjectSecurity(ProjectService projectService, ProjectMemberService projectMemberService) {
+    public ProjectSecurity(ProjectService projectService, ProjectMembershipIndex membershipIndex) {
         this.projectService = projectService;
-        this.projectMemberService = projectMemberService;
+        this.membershipIndex = membershipIndex;
     }
 
     public boolean canDeleteProject(Long projectId, Authentication authentication) {
@@ -41,6 +38,11 @@ public class ProjectSecurity {
             userId = u.getId();
         }
 
+        // Project member with ADMIN role can delete (index en mémoire, pas de scan des membres)
+        if (userId != null && membershipIndex.roleOf(userId, projectId).orElse(null) == RoleType.ADMIN) {
+            return true;
+        }
+
         // If project not found -> deny (caller may handle not found separately)
         Optional<Project> opt = projectService.getProjectById(projectId);
         if (opt.isEmpty()) return false;
@@ -51,16 +53,6 @@ public class ProjectSecurity {
             return true;
         }
 
-        // Project member with ADMIN role can delete
-        List<ProjectMember> members = projectMemberService.findMembersByProjectId(projectId);
-        if (userId != null) {
-            for (ProjectMember pm : members) {
-                if (userId.equals(pm.getUserId()) && pm.getRole() == RoleType.ADMIN) {
-                    return true;
-                }
-            }
-        }
-
         return false;
     }
 }
@@ -1,9 +1,6 @@
 package com.mpmt.backend.security;
 
-import com.mpmt.backend.entity.Task;
 import com.mpmt.backend.entity.User;
-import com.mpmt.backend.repository.ProjectMemberRepository;
-import com.mpmt.backend.repository.TaskRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder; // ⬅️ NEW
@@ -12,12 +9,10 @@ import org.springframework.stereotype.Component;
 @Component("taskSecurity")
 public class TaskSecurity {
 
-    private final TaskRepository taskRepo;
-    private final ProjectMemberRepository pmRepo;
+    private final ProjectMembershipIndex membershipIndex;
 
-    public TaskSecurity(TaskRepository taskRepo, ProjectMemberRepository pmRepo) {
-        this.taskRepo = taskRepo;
-        this.pmRepo = pmRepo;
+    public TaskSecurity(ProjectMembershipIndex membershipIndex) {
+        this.membershipIndex = membershipIndex;
     }
 
     /**
@@ -45,15 +40,14 @@ public class TaskSecurity {
         Long userId = extractUserId(auth);
         if (userId == null) return false;
 
-        // 3) Charger la tâche → vérifier appartenance au projet
-        Task task = taskRepo.findById(taskId).orElse(null);
-        if (task == null || task.getProject() == null || task.getProject().getId() == null) {
+        // 3) Projet de la tâche (index taskId -> projectId, sans charger l'entité Task)
+        Long projectId = membershipIndex.projectIdOfTask(taskId);
+        if (projectId == null) {
             return false;
         }
 
-        Long projectId = task.getProject().getId();
         // Autoriser si l'utilisateur est membre du projet (ADMIN/MEMBER/OBSERVER côté ProjectMember.role)
-        return pmRepo.existsByProject_IdAndUser_Id(projectId, userId);
+        return membershipIndex.isMember(userId, projectId);
     }
 
     private Long extractUserId(Authentication auth) {
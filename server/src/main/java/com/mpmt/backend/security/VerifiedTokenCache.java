@@ -0,0 +1,94 @@
+package com.mpmt.backend.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache borné des JWT déjà vérifiés (signature + expiration).
+ * Clé = SHA-256 du token brut (on ne garde jamais le token en mémoire),
+ * valeur = sujet + date d'expiration extraits lors du premier parse.
+ * Éviction : à l'expiration du token, ou LRU quand la taille max est atteinte.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /** Claims utiles d'un token déjà vérifié. */
+    public record VerifiedToken(String subject, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+
+    private final int maxSize;
+    private final Map<String, VerifiedToken> entries;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${app.security.token-cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        // accessOrder = true -> l'entrée la moins récemment utilisée sort en premier
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    /** Retourne le token vérifié s'il est en cache et non expiré, sinon null. */
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            VerifiedToken cached = entries.get(key);
+            if (cached == null) return null;
+            if (cached.isExpired(now)) {
+                entries.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    /** Mémorise un token dont la signature vient d'être vérifiée. */
+    public VerifiedToken put(String token, String subject, Date expiration) {
+        VerifiedToken verified = new VerifiedToken(subject, expiration != null ? expiration.getTime() : 0L);
+        if (maxSize <= 0 || verified.isExpired(System.currentTimeMillis())) {
+            return verified; // cache désactivé ou token déjà expiré : on ne garde rien
+        }
+        String key = hash(token);
+        synchronized (entries) {
+            entries.put(key, verified);
+        }
+        return verified;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
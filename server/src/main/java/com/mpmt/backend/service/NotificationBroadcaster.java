@@ -0,0 +1,248 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.NotificationSummary;
+import com.mpmt.backend.entity.Notification;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diffusion des notifications en Server-Sent Events (GET /api/notifications/stream).
+ *  - chaque connexion a sa file bornée (buffer-size), vidée par un petit pool d'envoi :
+ *    l'écriture d'une notification ne bloque jamais sur un client lent ;
+ *  - file pleine : la connexion est fermée, le client se reconnecte avec Last-Event-ID et rattrape depuis la base ;
+ *  - le rattrapage tient dans la file avec le commentaire "connected" : au plus buffer-size - 2 notifications,
+ *    suivies d'un événement "resync" s'il en manquait davantage (le client recharge alors son fil) ;
+ *  - un commentaire ": heartbeat" part toutes les heartbeat-interval pour garder la connexion ouverte
+ *    derrière les proxys et détecter les clients partis.
+ * Les notifications sont publiées après le commit de la transaction qui les crée.
+ */
+@Component
+public class NotificationBroadcaster implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationBroadcaster.class);
+
+    /** Une connexion SSE : l'emitter et sa file d'événements en attente d'envoi. */
+    static final class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final Executor sender;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    @Autowired
+    public NotificationBroadcaster(
+            @Value("${app.notifications.sse.sender-threads:2}") int senderThreads,
+            @Value("${app.notifications.sse.buffer-size:100}") int bufferSize,
+            @Value("${app.notifications.sse.timeout:PT30M}") Duration timeout
+    ) {
+        this(Executors.newFixedThreadPool(Math.max(senderThreads, 1), daemonThreads()), bufferSize, timeout);
+    }
+
+    NotificationBroadcaster(Executor sender, int bufferSize, Duration timeout) {
+        this.sender = sender;
+        this.bufferSize = Math.max(bufferSize, 2);
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Ouvre une connexion pour l'utilisateur. backlog(limit) lit au plus limit notifications manquées, envoyées
+     * d'abord (reconnexion) : il est appelé après l'enregistrement de la connexion, une notification commitée
+     * entre les deux arrive donc par l'une ou l'autre voie (éventuellement les deux, le client dédoublonne sur l'id).
+     */
+    public SseEmitter subscribe(Long userId, IntFunction<List<Notification>> backlog) {
+        return subscribe(userId, new SseEmitter(timeoutMillis), backlog);
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter, IntFunction<List<Notification>> backlog) {
+        Connection c = register(userId, emitter);
+        offer(c, SseEmitter.event().comment("connected"));
+        List<Notification> missed;
+        try {
+            missed = backlog.apply(maxBacklog() + 1);
+        } catch (RuntimeException e) {
+            remove(c);
+            throw e;
+        }
+        missed.stream().limit(maxBacklog()).forEach(n -> offer(c, toEvent(n)));
+        if (missed.size() > maxBacklog()) {
+            resyncs.incrementAndGet();
+            offer(c, resyncEvent(maxBacklog() > 0 ? missed.get(maxBacklog() - 1) : null));
+        }
+        return emitter;
+    }
+
+    /** Notifications de rattrapage envoyées au plus par connexion : la file garde la place de "connected" et "resync". */
+    public int maxBacklog() {
+        return bufferSize - 2;
+    }
+
+    /** Publie la notification à toutes les connexions de son destinataire, après commit s'il y a une transaction. */
+    public void publish(Notification notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(notification);
+                }
+            });
+        } else {
+            deliver(notification);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.notifications.sse.heartbeat-interval:PT15S}",
+            fixedDelayString = "${app.notifications.sse.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        connectionsByUser.values().forEach(set -> set.forEach(c -> offer(c, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    public void stop() {
+        connectionsByUser.values().forEach(set -> set.forEach(c -> c.emitter.complete()));
+        connectionsByUser.clear();
+        if (sender instanceof ExecutorService executor) executor.shutdownNow();
+    }
+
+    public int connectionCount() { return connections.get(); }
+    public long getSent() { return sent.get(); }
+    public long getOverflows() { return overflows.get(); }
+    public long getResyncs() { return resyncs.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mpmt.notifications.sse.connections", this, NotificationBroadcaster::connectionCount)
+                .register(registry);
+        FunctionCounter.builder("mpmt.notifications.sse.sent", this, NotificationBroadcaster::getSent)
+                .description("Notifications envoyées sur les connexions SSE")
+                .register(registry);
+        FunctionCounter.builder("mpmt.notifications.sse.overflows", this, NotificationBroadcaster::getOverflows)
+                .description("Connexions fermées faute de place dans leur file (client trop lent)")
+                .register(registry);
+        FunctionCounter.builder("mpmt.notifications.sse.resyncs", this, NotificationBroadcaster::getResyncs)
+                .description("Reconnexions dont le rattrapage dépassait la file : fil à recharger par le client")
+                .register(registry);
+    }
+
+    // ----------------- Helpers -----------------
+
+    Connection register(Long userId, SseEmitter emitter) {
+        Connection c = new Connection(userId, emitter, bufferSize);
+        connectionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(c);
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> remove(c));
+        emitter.onTimeout(() -> remove(c));
+        emitter.onError(e -> remove(c));
+        return c;
+    }
+
+    private void deliver(Notification notification) {
+        Set<Connection> set = connectionsByUser.get(notification.getUserId());
+        if (set == null) return;
+        set.forEach(c -> offer(c, toEvent(notification)));
+    }
+
+    private void offer(Connection c, SseEmitter.SseEventBuilder event) {
+        if (!c.pending.offer(event)) {
+            overflows.incrementAndGet();
+            log.warn("SSE : file pleine pour l'utilisateur {}, connexion fermée", c.userId);
+            remove(c);
+            c.emitter.complete();
+            return;
+        }
+        if (c.draining.compareAndSet(false, true)) sender.execute(() -> drain(c));
+    }
+
+    /** Un seul drain par connexion à la fois : les événements partent dans l'ordre. */
+    private void drain(Connection c) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = c.pending.poll()) != null) {
+                c.emitter.send(event);
+                sent.incrementAndGet();
+            }
+        } catch (Exception e) {
+            // Client parti (IOException) ou emitter déjà terminé (IllegalStateException)
+            log.debug("SSE : envoi impossible à l'utilisateur {}, connexion retirée", c.userId, e);
+            remove(c);
+            c.pending.clear();
+            // Termine la requête asynchrone tout de suite, sans attendre le timeout SSE
+            c.emitter.completeWithError(e);
+        } finally {
+            c.draining.set(false);
+        }
+        if (!c.pending.isEmpty() && c.draining.compareAndSet(false, true)) sender.execute(() -> drain(c));
+    }
+
+    private void remove(Connection c) {
+        connectionsByUser.computeIfPresent(c.userId, (id, set) -> {
+            if (set.remove(c)) connections.decrementAndGet();
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(Notification n) {
+        // id = position (sentAt, id) : le rattrapage ne dépend pas de l'ordre de commit des ids
+        return SseEmitter.event()
+                .id(NotificationSummary.Cursor.of(n.getSentAt(), n.getId()).encode())
+                .name("notification")
+                .data(n, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Rattrapage tronqué : le client recharge son fil (GET /api/notifications/user/{id}/feed). L'id reprend
+     * le curseur de la dernière notification envoyée, pour qu'une reconnexion continue à partir de là.
+     */
+    private SseEmitter.SseEventBuilder resyncEvent(Notification lastSent) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("resync").data(maxBacklog());
+        if (lastSent != null) event.id(NotificationSummary.Cursor.of(lastSent.getSentAt(), lastSent.getId()).encode());
+        return event;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "sse-sender-" + index.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -1,21 +1,52 @@
 package com.mpmt.backend.service;
 
+import com.mpmt.backend.DTO.NotificationSummary;
 import com.mpmt.backend.entity.Notification;
 import com.mpmt.backend.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class NotificationService {
 
+    /** Taille de page par défaut et maximale du fil de notifications. */
+    public static final int FEED_DEFAULT_SIZE = 20;
+    public static final int FEED_MAX_SIZE = 100;
+
+    private static final List<Boolean> UNREAD_ONLY = List.of(false);
+    private static final List<Boolean> ALL = List.of(false, true);
+
+    /**
+     * Marge du rattrapage SSE : une notification commitée après celles déjà reçues peut porter un sentAt
+     * (et un id, séquence pooled) antérieur ; on renvoie tout ce qui a moins de CATCH_UP_OVERLAP de retard
+     * sur le dernier événement reçu. Borne la durée d'une transaction qui crée des notifications.
+     */
+    static final Duration CATCH_UP_OVERLAP = Duration.ofSeconds(30);
+
+    /** Nombre d'ids par clause IN de markRead. */
+    static final int MARK_READ_CHUNK = 1000;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationBroadcaster broadcaster;
+    private final UnreadNotificationCounters unreadCounters;
 
     @Autowired
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationBroadcaster broadcaster,
+                               UnreadNotificationCounters unreadCounters) {
         this.notificationRepository = notificationRepository;
+        this.broadcaster = broadcaster;
+        this.unreadCounters = unreadCounters;
     }
 
     public List<Notification> getAllNotifications() {
@@ -34,19 +65,110 @@ public class NotificationService {
         return notificationRepository.findByUserIdAndReadFalse(userId);
     }
 
+    /**
+     * Fil de l'utilisateur, plus récentes d'abord : jusqu'à limit notifications après le curseur (null = début).
+     * Une seule requête sur l'index (user_id, [read,] sent_at desc) : coût indépendant de l'historique.
+     */
+    public List<NotificationSummary> getFeed(Long userId, boolean unreadOnly, NotificationSummary.Cursor after, int limit) {
+        List<Boolean> readStates = unreadOnly ? UNREAD_ONLY : ALL;
+        return after == null
+                ? notificationRepository.findFeed(userId, readStates, Limit.of(limit))
+                : notificationRepository.findFeedAfter(userId, readStates, after.sentAt(), after.id(), Limit.of(limit));
+    }
+
+    /** Ramène une taille de page demandée dans [1, FEED_MAX_SIZE] (FEED_DEFAULT_SIZE si absente). */
+    public static int clampFeedSize(Integer size) {
+        if (size == null) return FEED_DEFAULT_SIZE;
+        return Math.min(Math.max(size, 1), FEED_MAX_SIZE);
+    }
+
+    /** Nombre de non lues (badge), servi par le compteur en mémoire. */
+    public long getUnreadCount(Long userId) {
+        return unreadCounters.get(userId);
+    }
+
+    /** Enregistre la notification puis la pousse aux connexions SSE du destinataire (après commit). */
     public Notification createNotification(Notification notification) {
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        unreadCounters.onCreated(saved.getUserId(), saved.isRead());
+        broadcaster.publish(saved);
+        return saved;
     }
 
+    /**
+     * Ouvre le flux SSE de l'utilisateur. Sur reconnexion (lastEventId = curseur "sentAt_id" du dernier événement
+     * reçu, ou id seul pour les anciens clients), les notifications envoyées depuis sentAt - CATCH_UP_OVERLAP
+     * (dans la limite fixée par le broadcaster) partent avant les nouvelles : au moins une fois, le client
+     * dédoublonne sur l'id. La connexion est enregistrée avant la lecture du rattrapage.
+     * Lève IllegalArgumentException si lastEventId est mal formé.
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        NotificationSummary.Cursor last = parseLastEventId(lastEventId);
+        if (last == null) return broadcaster.subscribe(userId, limit -> List.of());
+        Date since = new Date(last.sentAt().getTime() - CATCH_UP_OVERLAP.toMillis());
+        return broadcaster.subscribe(userId, limit -> notificationRepository
+                .findByUserIdAndSentAtGreaterThanEqualOrderBySentAtAscIdAsc(userId, since, Limit.of(limit)));
+    }
+
+    /** UPDATE conditionné à read = false : seul l'appel qui la fait passer à lue décompte (appels concurrents). */
+    @Transactional
     public void markAsRead(Long id) {
-        Optional<Notification> notif = notificationRepository.findById(id);
-        notif.ifPresent(n -> {
-            n.setRead(true);
-            notificationRepository.save(n);
+        notificationRepository.findUserIdById(id).ifPresent(userId -> {
+            if (notificationRepository.markReadById(id) == 1) unreadCounters.onRead(userId);
         });
     }
 
+    /** Marque toutes les notifications de l'utilisateur comme lues en un UPDATE ; retourne le nombre modifié. */
+    @Transactional
+    public int markAllRead(Long userId) {
+        int updated = notificationRepository.markAllReadByUserId(userId);
+        unreadCounters.onRead(userId, updated);
+        return updated;
+    }
+
+    /**
+     * Marque comme lues les notifications d'ids donnés appartenant à l'utilisateur (les autres ids sont ignorés),
+     * un UPDATE par paquet de MARK_READ_CHUNK ids ; retourne le nombre modifié.
+     */
+    @Transactional
+    public int markRead(Long userId, Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += MARK_READ_CHUNK) {
+            updated += notificationRepository.markReadByUserIdAndIdIn(
+                    userId, distinct.subList(from, Math.min(from + MARK_READ_CHUNK, distinct.size())));
+        }
+        unreadCounters.onRead(userId, updated);
+        return updated;
+    }
+
+    private NotificationSummary.Cursor parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) return null;
+        if (lastEventId.indexOf('_') >= 0) return NotificationSummary.Cursor.parse(lastEventId);
+        long id;
+        try {
+            id = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + lastEventId, e);
+        }
+        // Ancien format (id seul) : la position est l'envoi de cette notification
+        return notificationRepository.findById(id)
+                .map(n -> NotificationSummary.Cursor.of(n.getSentAt(), n.getId()))
+                .orElse(null);
+    }
+
+    /**
+     * Supprime la notification ; l'état de lecture décompté est celui de la ligne supprimée :
+     * DELETE ... read = false d'abord (décompte si 1 ligne), sinon DELETE de la lue.
+     */
+    @Transactional
     public void deleteNotification(Long id) {
-        notificationRepository.deleteById(id);
+        notificationRepository.findUserIdById(id).ifPresent(userId -> {
+            if (notificationRepository.deleteByIdAndRead(id, false) == 1) {
+                unreadCounters.onDeleted(userId, false);
+            } else {
+                notificationRepository.deleteByIdAndRead(id, true);
+            }
+        });
     }
 }
@@ -6,6 +6,7 @@ import com.mpmt.backend.entity.User;
 import com.mpmt.backend.repository.ProjectMemberRepository;
 import com.mpmt.backend.repository.ProjectRepository;
 import com.mpmt.backend.repository.UserRepository;
+import com.mpmt.backend.security.ProjectMembershipIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.stream.Collectors;
@@ -20,16 +21,19 @@ public class ProjectMemberService {
     private final ProjectMemberRepository projectMemberRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProjectMembershipIndex membershipIndex;
 
     @Autowired
     public ProjectMemberService(
             ProjectMemberRepository projectMemberRepository,
             ProjectRepository projectRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            ProjectMembershipIndex membershipIndex
     ) {
         this.projectMemberRepository = projectMemberRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
+        this.membershipIndex = membershipIndex;
     }
 
     public List<ProjectMember> getAllMembers() {
@@ -50,7 +54,9 @@ public class ProjectMemberService {
         member.setProject(project);
         member.setUser(user);
 
-        return projectMemberRepository.save(member);
+        ProjectMember saved = projectMemberRepository.save(member);
+        membershipIndex.invalidateUser(user.getId());
+        return saved;
     }
 
     // NOUVELLE MÉTHODE pour compatibilité avec ProjectController
@@ -66,7 +72,9 @@ public class ProjectMemberService {
             member.setUser(user);
         }
 
-        return projectMemberRepository.save(member);
+        ProjectMember saved = projectMemberRepository.save(member);
+        membershipIndex.invalidateUser(saved.getUserId());
+        return saved;
     }
 
 
@@ -84,7 +92,10 @@ public class ProjectMemberService {
     }
 
     public void deleteProjectMember(Long id) {
-        projectMemberRepository.deleteById(id);
+        projectMemberRepository.findById(id).ifPresent(pm -> {
+            projectMemberRepository.delete(pm);
+            membershipIndex.invalidateUser(pm.getUserId());
+        });
     }
 
     public List<Project> findProjectsByUserId(Long userId) {
@@ -112,6 +123,7 @@ public class ProjectMemberService {
             ProjectMember pm = pmOpt.get();
             pm.setRole(RoleType.valueOf(newRole));
             projectMemberRepository.save(pm);
+            membershipIndex.invalidateUser(pm.getUserId());
             return Optional.of(pm);
         } else {
             return Optional.empty();
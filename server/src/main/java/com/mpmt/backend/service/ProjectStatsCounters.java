@@ -0,0 +1,179 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.ProjectStats;
+import com.mpmt.backend.DTO.ProjectStatusCount;
+import com.mpmt.backend.DTO.StatusCount;
+import com.mpmt.backend.entity.StatusType;
+import com.mpmt.backend.repository.TaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs de tâches par (projet, statut) tenus en mémoire : GET /api/projects/{id}/stats en O(1).
+ *  - chargés à la première lecture d'un projet par un group by status (1 requête) ;
+ *  - mis à jour par TaskService (création, suppression, changement de statut) après le commit
+ *    de la transaction, pour ne jamais compter une écriture annulée ;
+ *  - recalculés périodiquement depuis la table tasks par reconcile(), qui corrige et signale les écarts.
+ */
+@Component
+public class ProjectStatsCounters implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectStatsCounters.class);
+    private static final StatusType[] STATUSES = StatusType.values();
+
+    /** Compteurs d'un projet, indexés par ordinal de StatusType. Accès synchronisés sur l'instance. */
+    private static final class Counters {
+        final long[] counts = new long[STATUSES.length];
+        long version; // nombre de deltas appliqués, permet à la réconciliation d'ignorer un projet modifié entre-temps
+    }
+
+    private final TaskRepository taskRepository;
+    private final int maxProjects;
+    private final Map<Long, Counters> countersByProject = new ConcurrentHashMap<>();
+    private final AtomicLong driftCorrections = new AtomicLong();
+
+    @Autowired
+    public ProjectStatsCounters(
+            TaskRepository taskRepository,
+            @Value("${app.stats.max-projects:100000}") int maxProjects
+    ) {
+        this.taskRepository = taskRepository;
+        this.maxProjects = maxProjects;
+    }
+
+    public ProjectStats get(Long projectId) {
+        Counters c = countersOf(projectId);
+        synchronized (c) {
+            return ProjectStats.of(
+                    c.counts[StatusType.TODO.ordinal()],
+                    c.counts[StatusType.IN_PROGRESS.ordinal()],
+                    c.counts[StatusType.DONE.ordinal()]);
+        }
+    }
+
+    public void onTaskCreated(Long projectId, StatusType status) {
+        record(projectId, null, status);
+    }
+
+    public void onTaskDeleted(Long projectId, StatusType status) {
+        record(projectId, status, null);
+    }
+
+    public void onStatusChanged(Long projectId, StatusType from, StatusType to) {
+        if (from != to) record(projectId, from, to);
+    }
+
+    /**
+     * Recalcule les compteurs chargés depuis la table tasks (1 requête group by) et corrige les écarts.
+     * Un projet modifié pendant le calcul est ignoré : il sera vérifié au passage suivant.
+     * Retourne le nombre de projets corrigés.
+     */
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval:PT10M}",
+            fixedDelayString = "${app.stats.reconcile-interval:PT10M}")
+    public int reconcile() {
+        Map<Long, Long> versionsBefore = new HashMap<>();
+        countersByProject.forEach((projectId, c) -> {
+            synchronized (c) {
+                versionsBefore.put(projectId, c.version);
+            }
+        });
+        if (versionsBefore.isEmpty()) return 0;
+
+        Map<Long, long[]> actual = new HashMap<>();
+        for (ProjectStatusCount row : taskRepository.countByProjectAndStatus()) {
+            if (row.status() == null) continue;
+            actual.computeIfAbsent(row.projectId(), id -> new long[STATUSES.length])[row.status().ordinal()] = row.count();
+        }
+
+        int drifted = 0;
+        for (Map.Entry<Long, Long> e : versionsBefore.entrySet()) {
+            Counters c = countersByProject.get(e.getKey());
+            if (c == null) continue;
+            long[] expected = actual.getOrDefault(e.getKey(), new long[STATUSES.length]);
+            synchronized (c) {
+                if (c.version != e.getValue() || Arrays.equals(c.counts, expected)) continue;
+                log.warn("Dérive des compteurs du projet {} : mémoire={} base={} (corrigé)",
+                        e.getKey(), Arrays.toString(c.counts), Arrays.toString(expected));
+                System.arraycopy(expected, 0, c.counts, 0, expected.length);
+            }
+            drifted++;
+        }
+        driftCorrections.addAndGet(drifted);
+        if (drifted == 0) log.debug("Compteurs projet réconciliés : {} projets, aucun écart", versionsBefore.size());
+        return drifted;
+    }
+
+    public void clear() {
+        countersByProject.clear();
+    }
+
+    public long getDriftCorrections() { return driftCorrections.get(); }
+    public int size() { return countersByProject.size(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mpmt.stats.counters.drift", this, ProjectStatsCounters::getDriftCorrections)
+                .description("Projets dont les compteurs ont été corrigés par la réconciliation")
+                .register(registry);
+        Gauge.builder("mpmt.stats.counters.size", this, ProjectStatsCounters::size)
+                .register(registry);
+    }
+
+    // ----------------- Helpers -----------------
+
+    /** Applique le delta après commit si une transaction est active, immédiatement sinon. */
+    private void record(Long projectId, StatusType from, StatusType to) {
+        if (projectId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(projectId, from, to);
+                }
+            });
+        } else {
+            apply(projectId, from, to);
+        }
+    }
+
+    private void apply(Long projectId, StatusType from, StatusType to) {
+        Counters c = countersByProject.get(projectId);
+        if (c == null) return; // projet pas encore chargé : la première lecture verra l'état commité
+        synchronized (c) {
+            if (from != null) c.counts[from.ordinal()]--;
+            if (to != null) c.counts[to.ordinal()]++;
+            c.version++;
+        }
+    }
+
+    private Counters countersOf(Long projectId) {
+        Counters c = countersByProject.get(projectId);
+        if (c != null) return c;
+        if (countersByProject.size() >= maxProjects) countersByProject.clear(); // borne mémoire
+        return countersByProject.computeIfAbsent(projectId, this::load);
+    }
+
+    private Counters load(Long projectId) {
+        Counters c = new Counters();
+        for (StatusCount sc : taskRepository.countByStatusForProject(projectId)) {
+            if (sc.status() != null) c.counts[sc.status().ordinal()] = sc.count();
+        }
+        return c;
+    }
+}
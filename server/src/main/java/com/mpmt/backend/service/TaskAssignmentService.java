@@ -1,5 +1,6 @@
 package com.mpmt.backend.service;
 
+import com.mpmt.backend.DTO.TaskSummary;
 import com.mpmt.backend.entity.ProjectMember;
 import com.mpmt.backend.entity.Task;
 import com.mpmt.backend.entity.TaskAssignment;
@@ -9,12 +10,13 @@ import com.mpmt.backend.repository.ProjectMemberRepository;
 import com.mpmt.backend.repository.TaskAssignmentRepository;
 import com.mpmt.backend.repository.TaskRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class TaskAssignmentService {
@@ -55,7 +57,11 @@ public class TaskAssignmentService {
         return taskAssignmentRepository.findByTaskIdAndProjectMemberId(taskId, projectMemberId);
     }
 
-    /** Crée l’assignation + envoie un e-mail de notification (best-effort). */
+    /**
+     * Crée l’assignation et met l’e-mail de notification en outbox dans la même transaction :
+     * l’envoi SMTP a lieu plus tard (MailOutboxDispatcher), la requête ne l’attend pas.
+     */
+    @Transactional
     public TaskAssignment create(TaskAssignment assignment) {
         // 1) Anti-doublon : même taskId + projectMemberId => refuse
         TaskAssignment existing = taskAssignmentRepository
@@ -79,13 +85,9 @@ public class TaskAssignmentService {
             assigner = u;
         }
 
-        // 5) Envoi e-mail best-effort : on ne casse pas la requête si ça échoue
-        try {
-            if (task != null && assignee != null) {
-                mailService.sendTaskAssignedEmail(task, assignee, assigner);
-            }
-        } catch (Exception e) {
-            System.out.println("[TaskAssignmentService] Notification e-mail non envoyée: " + e.getMessage());
+        // 5) E-mail en outbox : écrit avec l’assignation, ou pas du tout
+        if (task != null && assignee != null) {
+            mailService.enqueueTaskAssignedEmail(task, assignee, assigner);
         }
 
         return saved;
@@ -95,17 +97,11 @@ public class TaskAssignmentService {
         taskAssignmentRepository.deleteById(id);
     }
 
-    public List<Task> findTasksAssignedToUser(Long userId) {
-        List<ProjectMember> memberships = projectMemberRepository.findByUser_Id(userId);
-        List<Long> memberIds = memberships.stream()
-                .map(ProjectMember::getId)
-                .collect(Collectors.toList());
-
-        List<TaskAssignment> assignments = taskAssignmentRepository.findByProjectMemberIdIn(memberIds);
-        List<Long> taskIds = assignments.stream()
-                .map(TaskAssignment::getTaskId)
-                .collect(Collectors.toList());
-
-        return taskRepository.findAllById(taskIds);
+    /**
+     * Tâches assignées à l'utilisateur (tous projets), triées par id : une seule requête de jointure,
+     * au plus limit tâches d'id > afterId (afterId null = début).
+     */
+    public List<TaskSummary> findTasksAssignedToUser(Long userId, Long afterId, int limit) {
+        return taskRepository.findAssignedToUser(userId, afterId == null ? 0L : afterId, Limit.of(limit));
     }
 }
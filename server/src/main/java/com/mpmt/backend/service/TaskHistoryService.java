@@ -4,6 +4,8 @@ import com.mpmt.backend.entity.TaskHistory;
 import com.mpmt.backend.repository.TaskHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,10 +14,12 @@ import java.util.Optional;
 public class TaskHistoryService {
 
     private final TaskHistoryRepository repository;
+    private final TaskHistoryWriter writer;
 
     @Autowired
-    public TaskHistoryService(TaskHistoryRepository repository) {
+    public TaskHistoryService(TaskHistoryRepository repository, TaskHistoryWriter writer) {
         this.repository = repository;
+        this.writer = writer;
     }
 
     public List<TaskHistory> getAllHistories() {
@@ -30,6 +34,7 @@ public class TaskHistoryService {
      * Liste tous les historiques liés à une tâche (pour GET /api/tasks/{id}/histories)
      */
     public List<TaskHistory> getHistoriesByTaskId(Long taskId) {
+        writer.awaitWritten(taskId); // lire ses propres écritures
         return repository.findByTaskId(taskId);
     }
 
@@ -37,6 +42,32 @@ public class TaskHistoryService {
         return repository.save(taskHistory);
     }
 
+    /**
+     * Ajout différé (TaskService) : l'entrée est confiée à TaskHistoryWriter après le commit
+     * de la transaction courante (jamais d'historique pour une modification annulée),
+     * immédiatement s'il n'y a pas de transaction.
+     */
+    public void append(TaskHistory taskHistory) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writer.enqueue(taskHistory);
+                }
+            });
+        } else {
+            writer.enqueue(taskHistory);
+        }
+    }
+
+    /**
+     * Ajout d'un lot d'entrées (changement de statut en masse) : écrites dans la transaction courante
+     * par un seul saveAll (insert JDBC par lots), donc validées ou annulées avec la modification.
+     */
+    public void appendAll(List<TaskHistory> histories) {
+        if (!histories.isEmpty()) repository.saveAll(histories);
+    }
+
     public void deleteHistory(Long id) {
         repository.deleteById(id);
     }
@@ -0,0 +1,250 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.entity.TaskHistory;
+import com.mpmt.backend.repository.TaskHistoryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écriture différée des TaskHistory : les entrées sont mises dans une file bornée,
+ * puis insérées par lots (une transaction par lot) par un thread dédié.
+ *  - un lot part dès flush-size entrées, ou au plus tard flush-interval après la première ;
+ *  - file pleine : l'appelant écrit lui-même son entrée (backpressure, aucune perte) ;
+ *  - les entrées en attente sont comptées par tâche jusqu'à leur commit : une lecture de l'historique d'une tâche
+ *    attend les siennes (awaitWritten), en demandant au thread d'écrire son lot sans attendre flush-interval ;
+ *  - à l'arrêt, le thread finit son lot et s'arrête (interrompu seulement après stop-timeout),
+ *    puis la file est vidée avant la fermeture du contexte.
+ */
+@Component
+public class TaskHistoryWriter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskHistoryWriter.class);
+
+    /** Marqueur mis en file par awaitWritten : le lot en cours part sans attendre la fin de flush-interval. */
+    private static final TaskHistory FLUSH = new TaskHistory();
+
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final TaskHistoryRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<TaskHistory> queue;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final long readWaitNanos;
+
+    // Entrées non encore commitées, par tâche ; progress est notifié à chaque lot écrit
+    private final Map<Long, Integer> pendingByTask = new ConcurrentHashMap<>();
+    private final Object progress = new Object();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public TaskHistoryWriter(
+            TaskHistoryRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.history.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.history.flush-size:200}") int flushSize,
+            @Value("${app.history.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${app.history.read-wait:PT2S}") Duration readWait
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // REQUIRES_NEW : l'écriture synchrone peut avoir lieu en afterCommit, où la transaction terminée est encore liée
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        this.flushSize = Math.max(flushSize, 1);
+        this.flushIntervalMillis = Math.max(flushInterval.toMillis(), 1);
+        this.readWaitNanos = readWait.toNanos();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "task-history-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            // Réveille le thread : il commite son lot en cours puis voit running=false
+            queue.offer(FLUSH);
+            worker.join(STOP_TIMEOUT_MILLIS);
+            if (worker.isAlive()) {
+                log.warn("Historique : writer toujours actif après {} ms, interrompu", STOP_TIMEOUT_MILLIS);
+                worker.interrupt();
+                worker.join(STOP_TIMEOUT_MILLIS);
+            }
+        }
+        int drained = flushPending();
+        if (drained > 0) log.info("Historique : {} entrées écrites à l'arrêt", drained);
+    }
+
+    /** Met l'entrée en file ; si la file est pleine, l'écrit immédiatement dans le thread appelant. */
+    public void enqueue(TaskHistory history) {
+        if (history.getTaskId() != null) pendingByTask.merge(history.getTaskId(), 1, Integer::sum);
+        if (queue.offer(history)) return;
+        callerRuns.incrementAndGet();
+        log.debug("File d'historique pleine ({}), écriture synchrone", queue.size());
+        write(List.of(history));
+    }
+
+    /**
+     * Attend, au plus read-wait, que les entrées en attente de la tâche soient commitées (lire ses propres écritures).
+     * Seul le lot qui les contient est accéléré : rien n'est écrit dans le thread appelant. false si le délai expire.
+     */
+    public boolean awaitWritten(Long taskId) {
+        if (taskId == null || !pendingByTask.containsKey(taskId)) return true;
+        queue.offer(FLUSH); // file pleine : le lot part de toute façon dès flush-size entrées
+        long deadline = System.nanoTime() + readWaitNanos;
+        synchronized (progress) {
+            while (pendingByTask.containsKey(taskId)) {
+                long waitNanos = deadline - System.nanoTime();
+                if (waitNanos <= 0) return false;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(progress, waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Écrit tout ce qui est en attente dans le thread appelant (arrêt). */
+    public int flushPending() {
+        int total = 0;
+        List<TaskHistory> batch = new ArrayList<>(flushSize);
+        while (queue.drainTo(batch, flushSize) > 0) {
+            batch.removeIf(h -> h == FLUSH);
+            total += batch.size();
+            write(batch);
+            batch.clear();
+        }
+        return total;
+    }
+
+    public int pending() { return queue.size(); }
+    public long getWritten() { return written.get(); }
+    public long getCallerRuns() { return callerRuns.get(); }
+    public long getFailed() { return failed.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mpmt.history.writer.written", this, TaskHistoryWriter::getWritten)
+                .description("Entrées d'historique insérées par le writer")
+                .register(registry);
+        FunctionCounter.builder("mpmt.history.writer.caller.runs", this, TaskHistoryWriter::getCallerRuns)
+                .description("Entrées écrites par l'appelant faute de place dans la file")
+                .register(registry);
+        FunctionCounter.builder("mpmt.history.writer.failed", this, TaskHistoryWriter::getFailed)
+                .description("Entrées perdues sur erreur d'insertion")
+                .register(registry);
+        Gauge.builder("mpmt.history.writer.pending", this, TaskHistoryWriter::pending)
+                .register(registry);
+    }
+
+    // ----------------- Helpers -----------------
+
+    private void run() {
+        List<TaskHistory> batch = new ArrayList<>(flushSize);
+        while (running) {
+            try {
+                TaskHistory first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null || first == FLUSH) continue;
+                batch.add(first);
+                fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Complète le lot jusqu'à flushSize, en attendant au plus flushInterval depuis la première entrée ;
+     * un marqueur FLUSH arrête l'attente.
+     */
+    private void fill(List<TaskHistory> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < flushSize) {
+            queue.drainTo(batch, flushSize - batch.size());
+            if (batch.removeIf(h -> h == FLUSH)) return;
+            if (batch.size() >= flushSize) return;
+            long waitNanos = deadline - System.nanoTime();
+            if (waitNanos <= 0) return;
+            TaskHistory next = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+            if (next == null || next == FLUSH) return;
+            batch.add(next);
+        }
+    }
+
+    /** Écrit le lot puis le retire des entrées en attente (écrit ou perdu), et réveille les lecteurs. */
+    private void write(List<TaskHistory> batch) {
+        try {
+            writeBatch(batch);
+        } finally {
+            for (TaskHistory history : batch) {
+                if (history.getTaskId() != null) {
+                    pendingByTask.computeIfPresent(history.getTaskId(), (id, n) -> n == 1 ? null : n - 1);
+                }
+            }
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+    }
+
+    private void writeBatch(List<TaskHistory> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                failed.incrementAndGet();
+                log.error("Échec d'écriture de l'historique de la tâche {}", batch.get(0).getTaskId(), e);
+                return;
+            }
+            // Une entrée invalide ne doit pas faire perdre tout le lot : on réessaie une par une
+            log.warn("Échec d'écriture d'un lot de {} entrées d'historique, nouvel essai unitaire", batch.size(), e);
+            for (TaskHistory history : batch) {
+                history.setId(null);
+                writeBatch(List.of(history));
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.BatchItemResult;
+import com.mpmt.backend.entity.Task;
+import com.mpmt.backend.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Import de tâches en lot (POST /api/projects/{id}/tasks:batch) : les tâches sont lues au fil de l'eau,
+ * validées, puis créées via TaskService.createTask par paquets de chunk-size, une transaction par paquet.
+ * Un paquet en échec est rejoué tâche par tâche pour donner un résultat exact à chaque élément.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    private final TaskService taskService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public TaskImportService(
+            TaskService taskService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.tasks.import.chunk-size:500}") int chunkSize
+    ) {
+        this.taskService = taskService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    /**
+     * Crée les tâches dans le projet (dont l'existence a déjà été vérifiée par l'appelant).
+     * Une erreur de lecture (JSON mal formé) arrête l'import : les paquets déjà traités restent créés.
+     */
+    public List<BatchItemResult> importTasks(Long projectId, Iterator<Task> tasks) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Task> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        Long currentUserId = currentUserId();
+        int index = 0;
+
+        while (true) {
+            Task task;
+            try {
+                if (!tasks.hasNext()) break;
+                task = tasks.next();
+            } catch (RuntimeException e) {
+                results.add(BatchItemResult.failed(index, "Invalid JSON: " + e.getMessage()));
+                break;
+            }
+
+            String error = validate(task, currentUserId);
+            if (error != null) {
+                results.add(BatchItemResult.failed(index, error));
+            } else {
+                task.setId(null);
+                task.setVersion(null);
+                task.setProjectId(projectId);
+                if (task.getCreatedBy() == null) task.setCreatedBy(currentUserId);
+                chunk.add(task);
+                chunkIndexes.add(index);
+                if (chunk.size() >= chunkSize) {
+                    results.addAll(createChunk(chunk, chunkIndexes));
+                    chunk.clear();
+                    chunkIndexes.clear();
+                }
+            }
+            index++;
+        }
+        if (!chunk.isEmpty()) results.addAll(createChunk(chunk, chunkIndexes));
+
+        results.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        return results;
+    }
+
+    // ----------------- Helpers -----------------
+
+    private List<BatchItemResult> createChunk(List<Task> chunk, List<Integer> indexes) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<BatchItemResult> created = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    created.add(BatchItemResult.created(indexes.get(i), taskService.createTask(chunk.get(i)).getId()));
+                }
+                return created;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Import : échec d'un paquet de {} tâches, nouvel essai unitaire", chunk.size(), e);
+            List<BatchItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Task task = chunk.get(i);
+                // id et version éventuellement attribués pendant la transaction annulée
+                task.setId(null);
+                task.setVersion(null);
+                try {
+                    results.add(BatchItemResult.created(indexes.get(i), taskService.createTask(task).getId()));
+                } catch (RuntimeException itemError) {
+                    results.add(BatchItemResult.failed(indexes.get(i), itemError.getMessage()));
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Champs obligatoires de Task (colonnes NOT NULL), message d'erreur ou null si valide.
+     * createdBy vaut par défaut l'utilisateur connecté : sans lui, la tâche doit le porter.
+     */
+    private String validate(Task task, Long currentUserId) {
+        if (task == null) return "Task is required";
+        if (task.getName() == null || task.getName().isBlank()) return "name is required";
+        if (task.getPriority() == null) return "priority is required";
+        if (task.getStatus() == null) return "status is required";
+        if (task.getCreatedBy() == null && currentUserId == null) return "createdBy is required";
+        return null;
+    }
+
+    private Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User u) {
+            return u.getId();
+        }
+        return null;
+    }
+}
@@ -1,37 +1,97 @@
 package com.mpmt.backend.service;
 
+import com.mpmt.backend.DTO.DeletedTask;
+import com.mpmt.backend.DTO.ProjectStats;
+import com.mpmt.backend.DTO.TaskSearchCriteria;
+import com.mpmt.backend.DTO.TaskStatusRow;
+import com.mpmt.backend.DTO.TaskSummary;
 import com.mpmt.backend.entity.StatusType;
 import com.mpmt.backend.entity.Task;
 import com.mpmt.backend.entity.TaskHistory;
 import com.mpmt.backend.entity.User; // pour extraire l'id utilisateur courant
 import com.mpmt.backend.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
 
+    /** Taille de page par défaut et maximale de GET /api/tasks. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Nombre d'ids par clause IN lors d'un changement de statut en masse. */
+    static final int BULK_IN_CHUNK = 1000;
+
     private final TaskRepository taskRepository;
     private final TaskHistoryService taskHistoryService;
+    private final ProjectStatsCounters statsCounters;
+    private final UnreadNotificationCounters unreadCounters;
 
     @Autowired
     public TaskService(TaskRepository taskRepository,
-                       TaskHistoryService taskHistoryService) {
+                       TaskHistoryService taskHistoryService,
+                       ProjectStatsCounters statsCounters,
+                       UnreadNotificationCounters unreadCounters) {
         this.taskRepository = taskRepository;
         this.taskHistoryService = taskHistoryService;
+        this.statsCounters = statsCounters;
+        this.unreadCounters = unreadCounters;
     }
 
+    // Uniquement pour détacher les tâches déjà écrites pendant un export en flux
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
     }
 
+    /** Ramène une taille de page demandée dans [1, MAX_PAGE_SIZE] (MAX_PAGE_SIZE si absente). */
+    public static int clampPageSize(Integer size) {
+        if (size == null || size > MAX_PAGE_SIZE) return MAX_PAGE_SIZE;
+        return Math.max(size, 1);
+    }
+
+    /** Jusqu'à limit tâches d'id strictement supérieur à afterId, triées par id (afterId null = début). */
+    public List<Task> getTasksAfter(Long afterId, int limit) {
+        return taskRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+
+    /** Recherche filtrée dans un projet : jusqu'à limit TaskSummary après criteria.after() (cf. TaskSearchRepositoryImpl). */
+    public List<TaskSummary> searchProjectTasks(TaskSearchCriteria criteria, int limit) {
+        return taskRepository.search(criteria, limit);
+    }
+
+    /**
+     * Parcourt les tâches d'id > afterId via un curseur JDBC, sans jamais charger toute la table :
+     * chaque tâche est détachée une fois consommée pour que le contexte de persistance ne grossisse pas.
+     */
+    @Transactional(readOnly = true)
+    public void streamTasks(Long afterId, Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamByIdGreaterThan(afterId == null ? 0L : afterId)) {
+            tasks.forEach(t -> {
+                consumer.accept(t);
+                if (entityManager != null) entityManager.detach(t);
+            });
+        }
+    }
+
     public Optional<Task> getTaskById(Long id) {
         return taskRepository.findById(id);
     }
@@ -44,12 +104,35 @@ public class TaskService {
         return taskRepository.findByProject_IdAndStatus(projectId, status);
     }
 
+    /** Statistiques d'un projet, servies par les compteurs en mémoire (group by status au premier appel). */
+    public ProjectStats getProjectStats(Long projectId) {
+        return statsCounters.get(projectId);
+    }
+
+    @Transactional
     public Task createTask(Task task) {
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        statsCounters.onTaskCreated(saved.getProjectId(), saved.getStatus());
+        return saved;
     }
 
-    public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+    /**
+     * Supprime la tâche en un seul DELETE, sans la lire : false si elle n'existe pas (le contrôleur répond 404).
+     * Les compteurs sont décrémentés avec le (projet, statut) renvoyé par PostgreSQL, et les compteurs de non lues
+     * des destinataires des notifications supprimées en cascade sont jetés ; sans ces données (autre base),
+     * la réconciliation périodique corrige.
+     */
+    @Transactional
+    public boolean deleteTask(Long id) {
+        Optional<DeletedTask> row = taskRepository.deleteReturningStatus(id);
+        if (row.isEmpty()) {
+            return false;
+        }
+        if (row.get().projectId() != null) {
+            statsCounters.onTaskDeleted(row.get().projectId(), row.get().status());
+        }
+        unreadCounters.onTaskDeleted(row.get().unreadNotificationUserIds());
+        return true;
     }
 
     /**
@@ -58,12 +141,22 @@ public class TaskService {
      */
     @Transactional
     public Task updateTask(Task task) {
+        return updateTask(task, null);
+    }
+
+    /**
+     * Idem, conditionnée à la version attendue (If-Match) : OptimisticLockingFailureException si la tâche
+     * a changé depuis. expectedVersion null = pas de condition ; @Version protège de toute façon l'écriture.
+     */
+    @Transactional
+    public Task updateTask(Task task, Long expectedVersion) {
         if (task.getId() == null) {
             throw new IllegalArgumentException("Task id must be provided for update");
         }
 
         Task existing = taskRepository.findById(task.getId())
                 .orElseThrow(() -> new EntityNotFoundException("Task not found: " + task.getId()));
+        checkVersion(existing, expectedVersion);
 
         // --- Snapshot OLD values ---
         String oldName     = existing.getName();
@@ -95,6 +188,7 @@ public class TaskService {
 
         // ⚠️ ne pas toucher à createdBy / project
         Task saved = taskRepository.save(existing);
+        statsCounters.onStatusChanged(saved.getProjectId(), oldStatus, saved.getStatus());
 
         // --- Compute diff lisible ---
         StringBuilder summary = new StringBuilder();
@@ -111,7 +205,7 @@ public class TaskService {
             h.setTaskId(saved.getId());
             h.setChangedBy(currentUserId()); // peut être null si non dispo
             h.setChangeDescription(summary.toString());
-            taskHistoryService.createHistory(h);
+            taskHistoryService.append(h);
         }
 
         return saved;
@@ -123,8 +217,15 @@ public class TaskService {
      */
     @Transactional
     public Task updateTaskStatus(Long id, StatusType newStatus) {
+        return updateTaskStatus(id, newStatus, null);
+    }
+
+    /** Idem, conditionnée à la version attendue (If-Match), comme updateTask(Task, Long). */
+    @Transactional
+    public Task updateTaskStatus(Long id, StatusType newStatus, Long expectedVersion) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found: " + id));
+        checkVersion(task, expectedVersion);
 
         if (task.getStatus() == newStatus) {
             return task; // pas de changement -> pas d'historique
@@ -133,18 +234,65 @@ public class TaskService {
         StatusType old = task.getStatus();
         task.setStatus(newStatus);
         Task saved = taskRepository.save(task);
+        statsCounters.onStatusChanged(saved.getProjectId(), old, newStatus);
 
-        TaskHistory h = new TaskHistory();
-        h.setTaskId(saved.getId());
-        h.setChangedBy(currentUserId());
-        h.setChangeDescription("status: " + old + " -> " + newStatus);
-        taskHistoryService.createHistory(h);
+        taskHistoryService.append(statusHistory(saved.getId(), currentUserId(), old, newStatus));
 
         return saved;
     }
 
+    /**
+     * PATCH /tasks/status : même sémantique que updateTaskStatus pour chaque id, en quelques requêtes.
+     * Par paquet de BULK_IN_CHUNK ids : select ... for update des tâches qui changent réellement
+     * (ancien statut), puis un UPDATE ... WHERE id IN ; l'historique "status: OLD -> NEW" est
+     * inséré en un seul lot. Les ids inconnus ou déjà dans le statut demandé sont ignorés.
+     * Retourne les ids modifiés.
+     */
+    @Transactional
+    public List<Long> updateTaskStatuses(Collection<Long> ids, StatusType newStatus) {
+        // Ordre d'id stable : deux mises à jour concurrentes verrouillent les lignes dans le même ordre
+        List<Long> sortedIds = ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        Long changedBy = currentUserId();
+        List<Long> updated = new ArrayList<>();
+        List<TaskHistory> histories = new ArrayList<>();
+
+        for (int from = 0; from < sortedIds.size(); from += BULK_IN_CHUNK) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + BULK_IN_CHUNK, sortedIds.size()));
+            List<TaskStatusRow> rows = taskRepository.lockStatusesToChange(chunk, newStatus);
+            if (rows.isEmpty()) continue;
+
+            List<Long> changed = rows.stream().map(TaskStatusRow::id).toList();
+            taskRepository.updateStatusByIdIn(changed, newStatus);
+            for (TaskStatusRow row : rows) {
+                statsCounters.onStatusChanged(row.projectId(), row.status(), newStatus);
+                histories.add(statusHistory(row.id(), changedBy, row.status(), newStatus));
+            }
+            updated.addAll(changed);
+        }
+
+        taskHistoryService.appendAll(histories);
+        return updated;
+    }
+
     // ----------------- Helpers -----------------
 
+    /** La version lue doit être celle attendue par le client (null = pas de condition). */
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new OptimisticLockingFailureException(
+                    "Task " + task.getId() + " is at version " + task.getVersion() + ", expected " + expectedVersion);
+        }
+    }
+
+    /** Entrée d'historique d'un changement de statut : "status: OLD -> NEW". */
+    private TaskHistory statusHistory(Long taskId, Long changedBy, StatusType old, StatusType newStatus) {
+        TaskHistory h = new TaskHistory();
+        h.setTaskId(taskId);
+        h.setChangedBy(changedBy);
+        h.setChangeDescription("status: " + old + " -> " + newStatus);
+        return h;
+    }
+
     /** J'accepte le null "volontaire" (utile pour effacer dueDate/endDate). */
     private boolean isExplicitNull(Object value) {
         return value == null;
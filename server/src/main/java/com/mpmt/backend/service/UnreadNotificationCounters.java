@@ -0,0 +1,215 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.UserUnreadCount;
+import com.mpmt.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nombre de notifications non lues par utilisateur, tenu en mémoire : le badge de l'UI en O(1).
+ *  - chargé à la première lecture d'un utilisateur par un count (1 requête, aucune entité chargée) ;
+ *    relu une fois si un delta est arrivé pour un utilisateur non chargé pendant ce count ;
+ *  - mis à jour par NotificationService (création, lecture, suppression) après le commit ;
+ *  - jeté pour les destinataires de notifications non lues supprimées en cascade avec une tâche ;
+ *  - un compteur qui passerait sous zéro est jeté et sera recompté à la lecture suivante ;
+ *  - recalculé périodiquement par reconcile() (écritures d'une autre instance, deltas perdus).
+ */
+@Component
+public class UnreadNotificationCounters implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadNotificationCounters.class);
+
+    /** Nombre d'utilisateurs par clause IN lors de la réconciliation. */
+    static final int RECONCILE_CHUNK = 1000;
+
+    /** Compteur d'un utilisateur. Accès synchronisés sur l'instance. */
+    private static final class Counter {
+        long unread;
+        long version; // nombre de deltas appliqués, permet à la réconciliation d'ignorer un utilisateur modifié entre-temps
+
+        Counter(long unread) {
+            this.unread = unread;
+        }
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final int maxUsers;
+    private final Map<Long, Counter> unreadByUser = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong driftCorrections = new AtomicLong();
+    // Deltas reçus pour un utilisateur absent de la map : un chargement qui en voit passer un relit son count
+    private final AtomicLong unloadedDeltas = new AtomicLong();
+
+    @Autowired
+    public UnreadNotificationCounters(
+            NotificationRepository notificationRepository,
+            @Value("${app.notifications.unread.max-users:100000}") int maxUsers
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.maxUsers = maxUsers;
+    }
+
+    public long get(Long userId) {
+        Counter c = unreadByUser.get(userId);
+        if (c == null) {
+            if (unreadByUser.size() >= maxUsers) unreadByUser.clear(); // borne mémoire
+            c = unreadByUser.computeIfAbsent(userId, this::load);
+        }
+        synchronized (c) {
+            return c.unread;
+        }
+    }
+
+    public void onCreated(Long userId, boolean read) {
+        if (!read) record(userId, 1);
+    }
+
+    public void onRead(Long userId) {
+        onRead(userId, 1);
+    }
+
+    /** count notifications de l'utilisateur passées à lues (mise à jour en masse). */
+    public void onRead(Long userId, int count) {
+        if (count > 0) record(userId, -count);
+    }
+
+    public void onDeleted(Long userId, boolean read) {
+        if (!read) record(userId, -1);
+    }
+
+    /** Notifications non lues de ces utilisateurs supprimées en cascade avec une tâche : recompte à la lecture suivante. */
+    public void onTaskDeleted(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userIds.forEach(unreadByUser::remove);
+                }
+            });
+        } else {
+            userIds.forEach(unreadByUser::remove);
+        }
+    }
+
+    /**
+     * Recompte les utilisateurs chargés depuis la table notification (un group by par lot de RECONCILE_CHUNK)
+     * et corrige les écarts. Un utilisateur modifié pendant le calcul est ignoré : il sera vérifié au passage
+     * suivant. Retourne le nombre de compteurs corrigés.
+     */
+    @Scheduled(initialDelayString = "${app.notifications.unread.reconcile-interval:PT10M}",
+            fixedDelayString = "${app.notifications.unread.reconcile-interval:PT10M}")
+    public int reconcile() {
+        Map<Long, Long> versionsBefore = new HashMap<>();
+        unreadByUser.forEach((userId, c) -> {
+            synchronized (c) {
+                versionsBefore.put(userId, c.version);
+            }
+        });
+        if (versionsBefore.isEmpty()) return 0;
+
+        Map<Long, Long> actual = new HashMap<>();
+        List<Long> userIds = new ArrayList<>(versionsBefore.keySet());
+        for (int from = 0; from < userIds.size(); from += RECONCILE_CHUNK) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + RECONCILE_CHUNK, userIds.size()));
+            for (UserUnreadCount row : notificationRepository.countUnreadByUserIdIn(chunk)) {
+                actual.put(row.userId(), row.count());
+            }
+        }
+
+        int drifted = 0;
+        for (Map.Entry<Long, Long> e : versionsBefore.entrySet()) {
+            Counter c = unreadByUser.get(e.getKey());
+            if (c == null) continue;
+            long expected = actual.getOrDefault(e.getKey(), 0L);
+            synchronized (c) {
+                if (c.version != e.getValue() || c.unread == expected) continue;
+                log.warn("Dérive du compteur de non lues de l'utilisateur {} : mémoire={} base={} (corrigé)",
+                        e.getKey(), c.unread, expected);
+                c.unread = expected;
+            }
+            drifted++;
+        }
+        driftCorrections.addAndGet(drifted);
+        if (drifted == 0) log.debug("Compteurs de non lues réconciliés : {} utilisateurs, aucun écart", versionsBefore.size());
+        return drifted;
+    }
+
+    public int size() { return unreadByUser.size(); }
+    public long getLoads() { return loads.get(); }
+    public long getDriftCorrections() { return driftCorrections.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mpmt.notifications.unread.cache.size", this, UnreadNotificationCounters::size)
+                .register(registry);
+        FunctionCounter.builder("mpmt.notifications.unread.cache.loads", this, UnreadNotificationCounters::getLoads)
+                .description("Compteurs de non lues recalculés depuis la base")
+                .register(registry);
+        FunctionCounter.builder("mpmt.notifications.unread.cache.drift", this, UnreadNotificationCounters::getDriftCorrections)
+                .description("Compteurs de non lues corrigés par la réconciliation")
+                .register(registry);
+    }
+
+    // ----------------- Helpers -----------------
+
+    /** Applique le delta après commit si une transaction est active, immédiatement sinon. */
+    private void record(Long userId, long delta) {
+        if (userId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, delta);
+                }
+            });
+        } else {
+            apply(userId, delta);
+        }
+    }
+
+    private void apply(Long userId, long delta) {
+        Counter c = unreadByUser.get(userId);
+        if (c == null) {
+            // pas encore chargé : la première lecture verra l'état commité ; un count en cours sera relu
+            unloadedDeltas.incrementAndGet();
+            return;
+        }
+        synchronized (c) {
+            c.unread += delta;
+            c.version++;
+            if (c.unread >= 0) return;
+        }
+        unreadByUser.remove(userId, c);
+    }
+
+    private Counter load(Long userId) {
+        long deltasBefore = unloadedDeltas.get();
+        loads.incrementAndGet();
+        long unread = notificationRepository.countByUserIdAndReadFalse(userId);
+        if (unloadedDeltas.get() != deltasBefore) {
+            // un delta a pu être commité puis ignoré pendant le count : on relit (une fois, la réconciliation fait le reste)
+            loads.incrementAndGet();
+            unread = notificationRepository.countByUserIdAndReadFalse(userId);
+        }
+        return new Counter(unread);
+    }
+}
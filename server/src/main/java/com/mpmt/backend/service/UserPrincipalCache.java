@@ -0,0 +1,103 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.entity.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache des utilisateurs authentifiés (clé = email), placé entre JwtAuthFilter et UserRepository.
+ * Évite un findByEmail par requête authentifiée. Les entrées expirent après le TTL
+ * et sont invalidées explicitement par UserService (création, mise à jour, suppression).
+ * Les compteurs hit/miss sont publiés dans Micrometer (mpmt.principal.cache.*).
+ */
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+    private record Entry(User user, long expiresAtMillis) {}
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public UserPrincipalCache(
+            @Value("${app.security.principal-cache.ttl:PT5M}") Duration ttl,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize
+    ) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+
+    /** Retourne l'utilisateur en cache, sinon le charge via loader (1 requête DB) et le mémorise. */
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(email);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.incrementAndGet();
+            return Optional.of(cached.user());
+        }
+
+        misses.incrementAndGet();
+        Optional<User> loaded = loader.apply(email);
+        if (loaded.isPresent() && ttlMillis > 0) {
+            if (entries.size() >= maxSize) {
+                evictExpired(now);
+                if (entries.size() >= maxSize) entries.clear(); // borne mémoire : on repart de zéro
+            }
+            entries.put(email, new Entry(loaded.get(), now + ttlMillis));
+        } else {
+            entries.remove(email);
+        }
+        return loaded;
+    }
+
+    /** Invalide l'entrée d'un utilisateur (par email et par id, l'email ayant pu changer). */
+    public void invalidate(User user) {
+        if (user == null) return;
+        if (user.getEmail() != null) entries.remove(user.getEmail());
+        invalidateUserId(user.getId());
+    }
+
+    public void invalidateUserId(Long userId) {
+        if (userId == null) return;
+        entries.values().removeIf(e -> userId.equals(e.user().getId()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public int size() { return entries.size(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mpmt.principal.cache.hits", this, UserPrincipalCache::getHits)
+                .description("Utilisateurs authentifiés servis depuis le cache")
+                .register(registry);
+        FunctionCounter.builder("mpmt.principal.cache.misses", this, UserPrincipalCache::getMisses)
+                .description("Utilisateurs authentifiés chargés depuis la base")
+                .register(registry);
+        Gauge.builder("mpmt.principal.cache.size", this, UserPrincipalCache::size)
+                .register(registry);
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+    }
+}
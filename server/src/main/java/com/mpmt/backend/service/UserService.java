@@ -4,6 +4,7 @@ import com.mpmt.backend.entity.User;
 import com.mpmt.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,10 +13,12 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserPrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     public List<User> getAllUsers() {
@@ -34,6 +37,14 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
+    /**
+     * Utilisateur authentifié pour JwtAuthFilter : servi depuis le cache,
+     * la base n'est interrogée qu'au premier appel ou après expiration/invalidation.
+     */
+    public Optional<User> getPrincipalByEmail(String email) {
+        return principalCache.get(email, userRepository::findByEmail);
+    }
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -42,11 +53,19 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
 
+    /** Crée ou met à jour (rôle compris) un utilisateur : le principal en cache est invalidé. */
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.invalidate(user);
+        principalCache.invalidate(saved);
+        return saved;
     }
 
-    public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+    /** Supprime l'utilisateur en un seul DELETE ; false s'il n'existait pas. */
+    @Transactional
+    public boolean deleteUser(Long id) {
+        boolean deleted = userRepository.deleteByIdReturningCount(id) > 0;
+        principalCache.invalidateUserId(id);
+        return deleted;
     }
 }
@@ -0,0 +1,92 @@
+-- Schéma initial : tables, séquences (ids pooled, allocationSize = 50), contraintes d'unicité et valeurs par défaut.
+-- SQL commun PostgreSQL / H2 (tests) ; les clés étrangères sont posées sur PostgreSQL seulement
+-- (postgresql/V4__foreign_keys.sql) : les tests H2 insèrent des lignes sans leurs parents.
+-- Bases existantes, créées par ddl-auto=update : elles sont marquées en V1 (spring.flyway.baseline-on-migrate)
+-- et postgresql/V2__upgrade_existing_schema.sql les amène au niveau de ce schéma.
+
+CREATE SEQUENCE IF NOT EXISTS public.tasks_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.task_history_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.task_assignment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.notification_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.project_member_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.mail_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE public."user" (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    varchar(255) NOT NULL,
+    username varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    role     varchar(255) NOT NULL CHECK (role IN ('ADMIN', 'MEMBER', 'OBSERVER')),
+    CONSTRAINT uq_user_email UNIQUE (email),
+    CONSTRAINT uq_user_username UNIQUE (username)
+);
+
+CREATE TABLE public.project (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        varchar(255) NOT NULL,
+    description varchar(255),
+    start_date  date,
+    created_at  timestamp(6),
+    created_by  bigint,
+    CONSTRAINT uq_project_name UNIQUE (name)
+);
+
+CREATE TABLE public.project_member (
+    id         bigint PRIMARY KEY,
+    project_id bigint       NOT NULL,
+    user_id    bigint       NOT NULL,
+    role       varchar(255) NOT NULL CHECK (role IN ('ADMIN', 'MEMBER', 'OBSERVER')),
+    joined_at  timestamp(6),
+    CONSTRAINT uq_project_member UNIQUE (project_id, user_id)
+);
+
+CREATE TABLE public.tasks (
+    id          bigint PRIMARY KEY,
+    project_id  bigint       NOT NULL,
+    name        varchar(255) NOT NULL,
+    title       varchar(255),
+    description varchar(255),
+    due_date    date,
+    end_date    date,
+    priority    varchar(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH')),
+    status      varchar(255) NOT NULL CHECK (status IN ('TODO', 'IN_PROGRESS', 'DONE')),
+    created_by  bigint       NOT NULL,
+    version     bigint       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE public.task_assignment (
+    id                bigint PRIMARY KEY,
+    task_id           bigint NOT NULL,
+    project_member_id bigint NOT NULL,
+    CONSTRAINT uq_task_assignment UNIQUE (task_id, project_member_id)
+);
+
+CREATE TABLE public.task_history (
+    id                 bigint PRIMARY KEY,
+    task_id            bigint       NOT NULL,
+    changed_by         bigint       NOT NULL,
+    change_date        timestamp(6) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    change_description varchar(255) NOT NULL
+);
+
+CREATE TABLE public.notification (
+    id      bigint PRIMARY KEY,
+    user_id bigint       NOT NULL,
+    task_id bigint       NOT NULL,
+    content varchar(255) NOT NULL,
+    read    boolean      NOT NULL DEFAULT false,
+    sent_at timestamp(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE public.mail_outbox (
+    id              bigint PRIMARY KEY,
+    recipient       varchar(255)  NOT NULL,
+    template        varchar(64)   NOT NULL,
+    params          text          NOT NULL,
+    status          varchar(16)   NOT NULL CHECK (status IN ('PENDING', 'SENT', 'FAILED')),
+    attempts        integer       NOT NULL DEFAULT 0,
+    created_at      timestamp(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    next_attempt_at timestamp(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at         timestamp(6),
+    last_error      varchar(1000)
+);
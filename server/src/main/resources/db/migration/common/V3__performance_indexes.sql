@@ -0,0 +1,46 @@
+-- Index des requêtes chaudes. IF NOT EXISTS : rejouable sur une base marquée en V1 qui en a déjà une partie.
+
+-- Compteurs par statut et filtres de statut d'un projet (ProjectStatsCounters, recherche)
+CREATE INDEX IF NOT EXISTS idx_tasks_project_status
+    ON public.tasks (project_id, status);
+
+-- Recherche / pagination keyset des tâches d'un projet (TaskSearchRepository)
+CREATE INDEX IF NOT EXISTS idx_tasks_project_id
+    ON public.tasks (project_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_project_due
+    ON public.tasks (project_id, due_date, id);
+
+-- Clé étrangère vers user : suppression d'un utilisateur sans parcours complet
+CREATE INDEX IF NOT EXISTS idx_tasks_created_by
+    ON public.tasks (created_by);
+
+-- Historique d'une tâche, trié par date
+CREATE INDEX IF NOT EXISTS idx_task_history_task_date
+    ON public.task_history (task_id, change_date);
+
+CREATE INDEX IF NOT EXISTS idx_task_history_changed_by
+    ON public.task_history (changed_by);
+
+-- Appartenances d'un utilisateur (index d'autorisation, tâches assignées) ;
+-- (project_id, user_id) est couvert par uq_project_member
+CREATE INDEX IF NOT EXISTS idx_project_member_user
+    ON public.project_member (user_id);
+
+-- Filtre "assignee" : TaskAssignment -> ProjectMember.user ; (task_id, ...) est couvert par uq_task_assignment
+CREATE INDEX IF NOT EXISTS idx_task_assignment_pm
+    ON public.task_assignment (project_member_id, task_id);
+
+-- Fil des notifications (keyset sur sent_at, id décroissants) : non lues seules, ou toutes
+CREATE INDEX IF NOT EXISTS idx_notification_user_read_sent
+    ON public.notification (user_id, read, sent_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notification_user_sent
+    ON public.notification (user_id, sent_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notification_task
+    ON public.notification (task_id);
+
+-- Lignes de l'outbox à envoyer, les plus anciennes échéances d'abord
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_status_next
+    ON public.mail_outbox (status, next_attempt_at);
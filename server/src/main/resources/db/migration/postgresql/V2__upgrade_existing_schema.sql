@@ -0,0 +1,54 @@
+-- Mise à niveau d'une base créée par ddl-auto=update puis marquée en V1 (baseline-on-migrate) :
+-- reprend sql/migrate_sequences.sql, patch_task_version.sql et patch_mail_outbox.sql.
+-- Rejouable et sans effet sur une base créée par V1.
+
+-- Outbox des e-mails (écrite avec l'assignation, envoyée par MailOutboxDispatcher)
+CREATE TABLE IF NOT EXISTS public.mail_outbox (
+    id              bigint PRIMARY KEY,
+    recipient       varchar(255)  NOT NULL,
+    template        varchar(64)   NOT NULL,
+    params          text          NOT NULL,
+    status          varchar(16)   NOT NULL CHECK (status IN ('PENDING', 'SENT', 'FAILED')),
+    attempts        integer       NOT NULL DEFAULT 0,
+    created_at      timestamp(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    next_attempt_at timestamp(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at         timestamp(6),
+    last_error      varchar(1000)
+);
+
+-- Ids IDENTITY -> séquences pooled (allocationSize = 50) :
+--  1) séquence dédiée, INCREMENT 50 ;
+--  2) positionnée au-delà du max(id) : jamais en arrière, le premier bloc Hibernate commence après les ids existants ;
+--  3) la colonne perd son IDENTITY et prend la séquence en DEFAULT (inserts SQL manuels, ex. demo-data.sql).
+DO $$
+DECLARE
+    t   text;
+    seq text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['tasks', 'task_history', 'task_assignment', 'notification', 'project_member', 'mail_outbox']
+    LOOP
+        seq := t || '_seq';
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS public.%I INCREMENT BY 50', seq);
+        EXECUTE format('ALTER SEQUENCE public.%I INCREMENT BY 50', seq);
+        EXECUTE format(
+            'SELECT setval(''public.%I'', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM public.%I), '
+                || '(SELECT last_value FROM public.%I)), false)',
+            seq, t, seq);
+        EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id SET DEFAULT nextval(''public.%I'')', t, seq);
+        EXECUTE format('ALTER SEQUENCE public.%I OWNED BY public.%I.id', seq, t);
+    END LOOP;
+END $$;
+
+-- Verrouillage optimiste des tâches : les lignes déjà présentes partent de 0
+ALTER TABLE public.tasks ADD COLUMN IF NOT EXISTS version bigint;
+UPDATE public.tasks SET version = 0 WHERE version IS NULL;
+ALTER TABLE public.tasks ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE public.tasks ALTER COLUMN version SET NOT NULL;
+
+-- Valeurs par défaut ; le fil des notifications trie sur sent_at : jamais null
+ALTER TABLE public.task_history ALTER COLUMN change_date SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE public.notification ALTER COLUMN read SET DEFAULT false;
+UPDATE public.notification SET sent_at = CURRENT_TIMESTAMP WHERE sent_at IS NULL;
+ALTER TABLE public.notification ALTER COLUMN sent_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE public.notification ALTER COLUMN sent_at SET NOT NULL;
@@ -0,0 +1,51 @@
+-- Clés étrangères (PostgreSQL). Une base marquée en V1 a déjà les clés posées par Hibernate (noms générés, FK...)
+-- et éventuellement celles de sql/patch_constraints.sql : toutes sont supprimées puis recréées sous les noms
+-- ci-dessous, sans doublon. Rejouable.
+-- task_history.changed_by est NOT NULL : RESTRICT (comme tasks.created_by) plutôt que SET NULL,
+-- un utilisateur ayant un historique ne peut pas être supprimé.
+
+DO $$
+DECLARE
+    c record;
+BEGIN
+    FOR c IN
+        SELECT conrelid::regclass AS tbl, conname
+        FROM pg_constraint
+        WHERE contype = 'f'
+          AND conrelid IN ('public.project_member'::regclass, 'public.tasks'::regclass,
+                           'public.task_assignment'::regclass, 'public.task_history'::regclass,
+                           'public.notification'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', c.tbl, c.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE public.project_member
+    ADD CONSTRAINT fk_project_member_project FOREIGN KEY (project_id) REFERENCES public.project (id);
+
+ALTER TABLE public.project_member
+    ADD CONSTRAINT fk_project_member_user FOREIGN KEY (user_id) REFERENCES public."user" (id);
+
+ALTER TABLE public.tasks
+    ADD CONSTRAINT fk_tasks_project FOREIGN KEY (project_id) REFERENCES public.project (id);
+
+ALTER TABLE public.tasks
+    ADD CONSTRAINT fk_tasks_created_by FOREIGN KEY (created_by) REFERENCES public."user" (id) ON DELETE RESTRICT;
+
+ALTER TABLE public.task_assignment
+    ADD CONSTRAINT fk_task_assignment_task FOREIGN KEY (task_id) REFERENCES public.tasks (id) ON DELETE CASCADE;
+
+ALTER TABLE public.task_assignment
+    ADD CONSTRAINT fk_task_assignment_pm FOREIGN KEY (project_member_id) REFERENCES public.project_member (id) ON DELETE CASCADE;
+
+ALTER TABLE public.task_history
+    ADD CONSTRAINT fk_task_history_task FOREIGN KEY (task_id) REFERENCES public.tasks (id) ON DELETE CASCADE;
+
+ALTER TABLE public.task_history
+    ADD CONSTRAINT fk_task_history_changed_by FOREIGN KEY (changed_by) REFERENCES public."user" (id) ON DELETE RESTRICT;
+
+ALTER TABLE public.notification
+    ADD CONSTRAINT fk_notification_task FOREIGN KEY (task_id) REFERENCES public.tasks (id) ON DELETE CASCADE;
+
+ALTER TABLE public.notification
+    ADD CONSTRAINT fk_notification_user FOREIGN KEY (user_id) REFERENCES public."user" (id) ON DELETE CASCADE;
@@ -164,4 +164,49 @@ class LoginRequestTest {
         request.setPassword("testpass123");
         assertEquals("testpass123", request.getPassword());
     }
-}
\ No newline at end of file
+}
+
+class TaskSearchCursorTest {
+    @Test
+    void encodeAndParse_roundTrip() {
+        TaskSearchCriteria.Cursor byId = new TaskSearchCriteria.Cursor(null, 42L);
+        assertEquals("42", byId.encode(TaskSearchCriteria.Sort.ID));
+        assertEquals(42L, TaskSearchCriteria.Cursor.parse("42", TaskSearchCriteria.Sort.ID).id());
+
+        TaskSearchCriteria.Cursor byDue = new TaskSearchCriteria.Cursor(java.time.LocalDate.of(2025, 6, 30), 7L);
+        assertEquals("2025-06-30_7", byDue.encode(TaskSearchCriteria.Sort.DUE_DATE));
+        assertEquals(byDue, TaskSearchCriteria.Cursor.parse("2025-06-30_7", TaskSearchCriteria.Sort.DUE_DATE));
+
+        TaskSearchCriteria.Cursor noDue = new TaskSearchCriteria.Cursor(null, 8L);
+        assertEquals(noDue, TaskSearchCriteria.Cursor.parse(noDue.encode(TaskSearchCriteria.Sort.DUE_DATE),
+                TaskSearchCriteria.Sort.DUE_DATE));
+        assertNull(TaskSearchCriteria.Cursor.parse(null, TaskSearchCriteria.Sort.ID));
+    }
+
+    @Test
+    void parse_invalid_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskSearchCriteria.Cursor.parse("abc", TaskSearchCriteria.Sort.ID));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskSearchCriteria.Cursor.parse("2025-13-01_3", TaskSearchCriteria.Sort.DUE_DATE));
+    }
+}
+
+class NotificationFeedCursorTest {
+    @Test
+    void encodeParse_roundTrip_keepsMicroseconds() {
+        java.sql.Timestamp sentAt = java.sql.Timestamp.from(java.time.Instant.parse("2025-06-30T10:15:30.123456Z"));
+        NotificationSummary last = new NotificationSummary(42L, 1L, "c", false, sentAt);
+
+        NotificationSummary.Cursor cursor = NotificationSummary.Cursor.of(last);
+        assertEquals("2025-06-30T10:15:30.123456Z_42", cursor.encode());
+        assertEquals(cursor, NotificationSummary.Cursor.parse(cursor.encode()));
+        assertNull(NotificationSummary.Cursor.parse(" "));
+    }
+
+    @Test
+    void parse_invalid_throwsIAE() {
+        assertThrows(IllegalArgumentException.class, () -> NotificationSummary.Cursor.parse("42"));
+        assertThrows(IllegalArgumentException.class, () -> NotificationSummary.Cursor.parse("yesterday_42"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.mpmt.backend.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Accès aux endpoints actuator à travers la vraie chaîne de sécurité (JwtAuthFilter + SecurityConfig, H2) :
+ * health public, metrics réservé aux ADMIN.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Metrics : un ADMIN lit les compteurs du cache de principals")
+    void metrics_admin_readsPrincipalCacheMeters() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/mpmt.principal.cache.hits").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("mpmt.principal.cache.hits"))
+                .andExpect(jsonPath("$.measurements[0].value").isNumber());
+        mockMvc.perform(get("/actuator/metrics/mpmt.principal.cache.size").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Metrics : refusé sans authentification et aux non-ADMIN")
+    void metrics_nonAdmin_forbidden() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("member").roles("MEMBER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Health : public")
+    void health_anonymous_notRejectedBySecurity() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk());
+    }
+}
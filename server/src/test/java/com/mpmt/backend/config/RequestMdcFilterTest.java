@@ -0,0 +1,46 @@
+package com.mpmt.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestMdcFilterTest {
+
+    private final RequestMdcFilter filter = new RequestMdcFilter();
+
+    @Test
+    void reusesIncomingRequestId_andClearsMdcAfterwards() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("X-Request-Id", "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(MDC.get(RequestMdcFilter.MDC_REQUEST_ID));
+                MDC.put(RequestMdcFilter.MDC_USER_ID, "7");
+            }
+        });
+
+        assertThat(seen.get()).isEqualTo("abc-123");
+        assertThat(response.getHeader("X-Request-Id")).isEqualTo("abc-123");
+        assertThat(MDC.get(RequestMdcFilter.MDC_REQUEST_ID)).isNull();
+        assertThat(MDC.get(RequestMdcFilter.MDC_USER_ID)).isNull();
+    }
+
+    @Test
+    void generatesRequestId_whenHeaderMissing() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), response, new MockFilterChain());
+
+        assertThat(response.getHeader("X-Request-Id")).isNotBlank();
+    }
+}
@@ -0,0 +1,80 @@
+package com.mpmt.backend.controller;
+
+import com.mpmt.backend.DTO.NotificationSummary;
+import com.mpmt.backend.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationControllerTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new NotificationController(notificationService)).build();
+    }
+
+    private static NotificationSummary summary(long id) {
+        return new NotificationSummary(id, 1L, "c" + id, false, Timestamp.from(Instant.parse("2025-06-30T10:00:00Z")));
+    }
+
+    @Test
+    void getFeed_firstPage_setsNextCursor() throws Exception {
+        when(notificationService.getFeed(5L, false, null, 3)).thenReturn(List.of(summary(9), summary(8), summary(7)));
+
+        mockMvc.perform(get("/api/notifications/user/5/feed").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(9))
+                .andExpect(header().string("X-Page-Size", "2"))
+                .andExpect(header().string("X-Next-Cursor", "2025-06-30T10:00:00Z_8"));
+    }
+
+    @Test
+    void getFeed_withCursor_unreadOnly_lastPage() throws Exception {
+        NotificationSummary.Cursor after = NotificationSummary.Cursor.parse("2025-06-30T10:00:00Z_8");
+        when(notificationService.getFeed(5L, true, after, NotificationService.FEED_DEFAULT_SIZE + 1))
+                .thenReturn(List.of(summary(7)));
+
+        mockMvc.perform(get("/api/notifications/user/5/feed")
+                        .param("unread", "true")
+                        .param("cursor", "2025-06-30T10:00:00Z_8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getFeed_badCursor_badRequest() throws Exception {
+        mockMvc.perform(get("/api/notifications/user/5/feed").param("cursor", "nope"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void markAllRead_returnsUpdatedCount() throws Exception {
+        when(notificationService.markAllRead(5L)).thenReturn(12);
+
+        mockMvc.perform(put("/api/notifications/user/5/read-all"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("12"));
+    }
+}
@@ -8,6 +8,7 @@ import com.mpmt.backend.security.JwtAuthFilter;
 import com.mpmt.backend.security.ProjectSecurity;
 import com.mpmt.backend.service.ProjectMemberService;
 import com.mpmt.backend.service.ProjectService;
+import com.mpmt.backend.service.TaskImportService;
 import com.mpmt.backend.service.TaskService;
 import com.mpmt.backend.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -16,7 +17,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.mpmt.backend.DTO.BatchItemResult;
+
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,6 +42,7 @@ class ProjectControllerTest {
     @MockBean ProjectMemberService projectMemberService;
     @MockBean TaskService taskService;
     @MockBean UserService userService;
+    @MockBean TaskImportService taskImportService;
     @MockBean
     private ProjectSecurity projectSecurity;
 
@@ -105,13 +112,61 @@ class ProjectControllerTest {
     }
     @Test
     void getProjectStats_empty() throws Exception {
-        when(taskService.getTasksByProjectId(10L)).thenReturn(java.util.List.of());
+        when(taskService.getProjectStats(10L)).thenReturn(com.mpmt.backend.DTO.ProjectStats.of(0, 0, 0));
         mvc.perform(get("/api/projects/10/stats"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalTasks").value(0))
                 .andExpect(jsonPath("$.progress").value(0));
     }
 
+    @Test
+    void getProjectStats_counts() throws Exception {
+        when(taskService.getProjectStats(11L)).thenReturn(com.mpmt.backend.DTO.ProjectStats.of(2, 1, 1));
+        mvc.perform(get("/api/projects/11/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTasks").value(4))
+                .andExpect(jsonPath("$.todoCount").value(2))
+                .andExpect(jsonPath("$.doneCount").value(1))
+                .andExpect(jsonPath("$.progress").value(25));
+        verify(taskService, never()).getTasksByProjectId(anyLong());
+    }
+
+    @Test
+    void searchTasksForProject_filtersAndCursor() throws Exception {
+        var t1 = new com.mpmt.backend.DTO.TaskSummary(3L, 5L, "A", null, com.mpmt.backend.entity.StatusType.TODO,
+                com.mpmt.backend.entity.PriorityType.HIGH, java.time.LocalDate.of(2025, 1, 10), null);
+        var t2 = new com.mpmt.backend.DTO.TaskSummary(4L, 5L, "B", null, com.mpmt.backend.entity.StatusType.TODO,
+                com.mpmt.backend.entity.PriorityType.HIGH, java.time.LocalDate.of(2025, 2, 1), null);
+        when(taskService.searchProjectTasks(any(), eq(2))).thenReturn(java.util.List.of(t1, t2));
+
+        mvc.perform(get("/api/projects/5/tasks/search")
+                        .param("status", "TODO")
+                        .param("priority", "HIGH")
+                        .param("dueFrom", "2025-01-01")
+                        .param("assigneeId", "9")
+                        .param("sort", "DUE_DATE")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("A"))
+                .andExpect(jsonPath("$[0].createdBy").doesNotExist())
+                .andExpect(header().string("X-Next-Cursor", "2025-01-10_3"));
+
+        var captor = org.mockito.ArgumentCaptor.forClass(com.mpmt.backend.DTO.TaskSearchCriteria.class);
+        verify(taskService).searchProjectTasks(captor.capture(), eq(2));
+        assertEquals(5L, captor.getValue().projectId());
+        assertEquals(java.util.List.of(com.mpmt.backend.entity.StatusType.TODO), captor.getValue().statuses());
+        assertEquals(9L, captor.getValue().assigneeId());
+        assertEquals(java.time.LocalDate.of(2025, 1, 1), captor.getValue().dueFrom());
+    }
+
+    @Test
+    void searchTasksForProject_badCursor_400() throws Exception {
+        mvc.perform(get("/api/projects/5/tasks/search").param("cursor", "oops"))
+                .andExpect(status().isBadRequest());
+        verify(taskService, never()).searchProjectTasks(any(), anyInt());
+    }
+
     @Test
     void getTasksForProject_ok() throws Exception {
         when(taskService.getTasksByProjectId(5L)).thenReturn(java.util.List.of(new Task()));
@@ -170,6 +225,55 @@ class ProjectControllerTest {
                 .andExpect(jsonPath("$.id").value(123));
     }
 
+    /** Le mock consomme le flux comme le vrai service : un résultat par tâche lue, nom repris dans l'erreur. */
+    private void echoImportedNames() {
+        when(taskImportService.importTasks(eq(2L), any())).thenAnswer(inv -> {
+            Iterator<Task> tasks = inv.getArgument(1);
+            List<BatchItemResult> out = new ArrayList<>();
+            int i = 0;
+            while (tasks.hasNext()) out.add(BatchItemResult.failed(i++, tasks.next().getName()));
+            return out;
+        });
+    }
+
+    @Test
+    void createTasksBatch_projectNotFound() throws Exception {
+        when(projectService.getProjectById(1L)).thenReturn(Optional.empty());
+        mvc.perform(post("/api/projects/1/tasks:batch")
+                        .contentType("application/json")
+                        .content("[{\"name\":\"A\"}]"))
+                .andExpect(status().isNotFound());
+        verifyNoInteractions(taskImportService);
+    }
+
+    @Test
+    void createTasksBatch_jsonArray() throws Exception {
+        when(projectService.getProjectById(2L)).thenReturn(Optional.of(new Project()));
+        echoImportedNames();
+
+        mvc.perform(post("/api/projects/2/tasks:batch")
+                        .contentType("application/json")
+                        .content("[{\"name\":\"A\"},{\"name\":\"B\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("B"));
+        verify(projectService, times(1)).getProjectById(2L);
+    }
+
+    @Test
+    void createTasksBatch_ndjson() throws Exception {
+        when(projectService.getProjectById(2L)).thenReturn(Optional.of(new Project()));
+        echoImportedNames();
+
+        mvc.perform(post("/api/projects/2/tasks:batch")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"A\"}\n{\"name\":\"B\"}\n{\"name\":\"C\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].error").value("C"));
+    }
+
     @Test
     void createProject_ok_addsCreatorAsAdmin() throws Exception {
         // principal = User JPA
@@ -9,8 +9,11 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,6 +24,8 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +36,9 @@ class TaskControllerTest {
     @Mock
     private TaskService taskService;
 
+    @Spy
+    private ObjectMapper jsonMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private TaskController taskController;
 
@@ -49,13 +57,64 @@ class TaskControllerTest {
         Task task = new Task();
         task.setId(1L);
         task.setName("Test Task");
-        when(taskService.getAllTasks()).thenReturn(List.of(task));
+        when(taskService.getTasksAfter(null, TaskService.MAX_PAGE_SIZE + 1)).thenReturn(List.of(task));
 
         // Act & Assert
         mockMvc.perform(get("/api/tasks"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].name").value("Test Task"));
+                .andExpect(jsonPath("$[0].name").value("Test Task"))
+                .andExpect(header().string("X-Page-Size", String.valueOf(TaskService.MAX_PAGE_SIZE)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllTasks_keysetPage_setsNextCursor() throws Exception {
+        Task t1 = new Task(); t1.setId(11L);
+        Task t2 = new Task(); t2.setId(12L);
+        Task t3 = new Task(); t3.setId(13L);
+        when(taskService.getTasksAfter(10L, 3)).thenReturn(List.of(t1, t2, t3));
+
+        mockMvc.perform(get("/api/tasks").param("afterId", "10").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(12))
+                .andExpect(header().string("X-Page-Size", "2"))
+                .andExpect(header().string("X-Next-Cursor", "12"));
+    }
+
+    @Test
+    void getAllTasks_sizeAboveMax_isClamped() throws Exception {
+        when(taskService.getTasksAfter(null, TaskService.MAX_PAGE_SIZE + 1)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/tasks").param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Page-Size", String.valueOf(TaskService.MAX_PAGE_SIZE)));
+    }
+
+    @Test
+    void streamAllTasks_writesNdjson() throws Exception {
+        doAnswer(inv -> {
+            java.util.function.Consumer<Task> consumer = inv.getArgument(1);
+            for (long id = 1; id <= 2; id++) {
+                Task t = new Task(); t.setId(id); t.setName("T" + id);
+                consumer.accept(t);
+            }
+            return null;
+        }).when(taskService).streamTasks(eq(null), any());
+
+        var async = mockMvc.perform(get("/api/tasks").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        org.junit.jupiter.api.Assertions.assertEquals(2, lines.length);
+        org.junit.jupiter.api.Assertions.assertTrue(lines[1].contains("\"name\":\"T2\""));
     }
 
     @Test
@@ -120,7 +179,7 @@ class TaskControllerTest {
     @Test
     void deleteTask_ok() throws Exception {
         // Arrange
-        when(taskService.getTaskById(1L)).thenReturn(Optional.of(new Task()));
+        when(taskService.deleteTask(1L)).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(delete("/api/tasks/1"))
@@ -130,26 +189,22 @@ class TaskControllerTest {
     @Test
     void deleteTask_notFound() throws Exception {
         // Arrange
-        when(taskService.getTaskById(99L)).thenReturn(Optional.empty());
+        when(taskService.deleteTask(99L)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/tasks/99"))
                 .andExpect(status().isNotFound());
+        verify(taskService, never()).getTaskById(anyLong());
     }
 
     @Test
     void updateTask_ok() throws Exception {
         // Arrange
-        Task existingTask = new Task();
-        existingTask.setId(1L);
-        existingTask.setName("Old Name");
-
         Task updatedTask = new Task();
         updatedTask.setId(1L);
         updatedTask.setName("New Name");
 
-        when(taskService.getTaskById(1L)).thenReturn(Optional.of(existingTask));
-        when(taskService.updateTask(any(Task.class))).thenReturn(updatedTask);
+        when(taskService.updateTask(any(Task.class), isNull())).thenReturn(updatedTask);
 
         // Act & Assert
         mockMvc.perform(put("/api/tasks/1")
@@ -162,8 +217,8 @@ class TaskControllerTest {
 
     @Test
     void updateTask_notFound() throws Exception {
-        // Arrange
-        when(taskService.getTaskById(99L)).thenReturn(Optional.empty());
+        // Arrange : le service signale l'absence, sans pré-vérification du contrôleur
+        when(taskService.updateTask(any(Task.class), isNull())).thenThrow(new EntityNotFoundException());
 
         // Act & Assert
         mockMvc.perform(put("/api/tasks/99")
@@ -181,7 +236,7 @@ class TaskControllerTest {
 
         StatusUpdateRequest request = new StatusUpdateRequest(StatusType.IN_PROGRESS);
 
-        when(taskService.updateTaskStatus(1L, StatusType.IN_PROGRESS)).thenReturn(task);
+        when(taskService.updateTaskStatus(1L, StatusType.IN_PROGRESS, null)).thenReturn(task);
 
         // Act & Assert
         mockMvc.perform(patch("/api/tasks/1/status")
@@ -196,7 +251,7 @@ class TaskControllerTest {
     void updateStatus_notFound() throws Exception {
         // Arrange
         StatusUpdateRequest request = new StatusUpdateRequest(StatusType.IN_PROGRESS);
-        when(taskService.updateTaskStatus(99L, StatusType.IN_PROGRESS)).thenThrow(new EntityNotFoundException());
+        when(taskService.updateTaskStatus(99L, StatusType.IN_PROGRESS, null)).thenThrow(new EntityNotFoundException());
 
         // Act & Assert
         mockMvc.perform(patch("/api/tasks/99/status")
@@ -204,4 +259,98 @@ class TaskControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void updateStatuses_returnsChangedIds() throws Exception {
+        when(taskService.updateTaskStatuses(List.of(1L, 2L, 3L), StatusType.DONE)).thenReturn(List.of(1L, 3L));
+
+        mockMvc.perform(patch("/api/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2,3],\"status\":\"DONE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DONE"))
+                .andExpect(jsonPath("$.updated.length()").value(2))
+                .andExpect(jsonPath("$.updated[1]").value(3));
+    }
+
+    @Test
+    void updateStatuses_emptyIds_badRequest() throws Exception {
+        mockMvc.perform(patch("/api/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[],\"status\":\"DONE\"}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(taskService);
+    }
+
+    // --------- ETag / If-None-Match / If-Match
+    private static Task versioned(long id, long version) {
+        Task task = new Task();
+        task.setId(id);
+        task.setName("T");
+        task.setVersion(version);
+        return task;
+    }
+
+    @Test
+    void getTaskById_setsETagFromVersion() throws Exception {
+        when(taskService.getTaskById(1L)).thenReturn(Optional.of(versioned(1L, 3L)));
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    void getTaskById_ifNoneMatch_notModified() throws Exception {
+        when(taskService.getTaskById(1L)).thenReturn(Optional.of(versioned(1L, 3L)));
+
+        mockMvc.perform(get("/api/tasks/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/tasks/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateTask_ifMatch_passesVersion_returnsNewETag() throws Exception {
+        when(taskService.updateTask(any(Task.class), eq(3L))).thenReturn(versioned(1L, 4L));
+
+        mockMvc.perform(put("/api/tasks/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"N\",\"version\":99}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void updateTask_staleIfMatch_preconditionFailed() throws Exception {
+        when(taskService.updateTask(any(Task.class), eq(3L))).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        mockMvc.perform(put("/api/tasks/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"N\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateStatus_concurrentWriteWithoutIfMatch_conflict() throws Exception {
+        when(taskService.updateTaskStatus(1L, StatusType.DONE, null)).thenThrow(new OptimisticLockingFailureException("race"));
+
+        mockMvc.perform(patch("/api/tasks/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void versionOf_parsesIfMatch() {
+        org.junit.jupiter.api.Assertions.assertNull(TaskController.versionOf(null));
+        org.junit.jupiter.api.Assertions.assertNull(TaskController.versionOf("*"));
+        org.junit.jupiter.api.Assertions.assertEquals(7L, TaskController.versionOf("\"7\""));
+        org.junit.jupiter.api.Assertions.assertEquals(7L, TaskController.versionOf("W/\"7\""));
+        org.junit.jupiter.api.Assertions.assertEquals(-1L, TaskController.versionOf("\"abc\""));
+    }
 }
@@ -4,7 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mpmt.backend.entity.User;
 import com.mpmt.backend.entity.Project;
 import com.mpmt.backend.entity.Notification;
-import com.mpmt.backend.entity.Task;
+import com.mpmt.backend.DTO.TaskSummary;
 import com.mpmt.backend.service.UserService;
 import com.mpmt.backend.service.ProjectMemberService;
 import com.mpmt.backend.service.NotificationService;
@@ -162,7 +162,7 @@ class UserControllerTest {
     @Test
     void deleteUser_ok() throws Exception {
         // Arrange
-        when(userService.getUserById(1L)).thenReturn(Optional.of(new User()));
+        when(userService.deleteUser(1L)).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(delete("/api/users/1"))
@@ -172,7 +172,7 @@ class UserControllerTest {
     @Test
     void deleteUser_notFound() throws Exception {
         // Arrange
-        when(userService.getUserById(99L)).thenReturn(Optional.empty());
+        when(userService.deleteUser(99L)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/users/99"))
@@ -208,13 +208,27 @@ class UserControllerTest {
     @Test
     void getAssignedTasksForUser_ok() throws Exception {
         // Arrange
-        Task task = new Task();
-        task.setId(1L);
-        when(taskAssignmentService.findTasksAssignedToUser(1L)).thenReturn(List.of(task));
+        TaskSummary task = new TaskSummary(1L, 3L, "T", null, null, null, null, null);
+        when(taskAssignmentService.findTasksAssignedToUser(1L, null, TaskService.MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of(task));
 
         // Act & Assert
         mockMvc.perform(get("/api/users/1/tasks"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1));
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].projectId").value(3))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAssignedTasksForUser_paged() throws Exception {
+        when(taskAssignmentService.findTasksAssignedToUser(1L, 5L, 2)).thenReturn(List.of(
+                new TaskSummary(6L, 3L, "A", null, null, null, null, null),
+                new TaskSummary(7L, 3L, "B", null, null, null, null, null)));
+
+        mockMvc.perform(get("/api/users/1/tasks").param("afterId", "5").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "6"));
     }
 }
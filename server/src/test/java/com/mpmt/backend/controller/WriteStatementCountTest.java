@@ -0,0 +1,132 @@
+package com.mpmt.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mpmt.backend.entity.*;
+import com.mpmt.backend.repository.ProjectRepository;
+import com.mpmt.backend.repository.TaskRepository;
+import com.mpmt.backend.repository.UserRepository;
+import com.mpmt.backend.service.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nombre de requêtes SQL par appel des endpoints d'écriture (contrôleurs et services réels, H2 embarquée).
+ * NOT_SUPPORTED : chaque appel de service ouvre et commite sa propre transaction, comme une requête HTTP.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskService.class, TaskHistoryService.class, ProjectStatsCounters.class, UnreadNotificationCounters.class,
+        UserService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteStatementCountTest {
+
+    // Historique écrit en différé, hors de la requête mesurée
+    @MockitoBean TaskHistoryWriter historyWriter;
+    @MockitoBean UserPrincipalCache principalCache;
+
+    @Autowired TaskService taskService;
+    @Autowired UserService userService;
+    @Autowired TaskRepository taskRepository;
+    @Autowired ProjectRepository projectRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    private TaskController taskController;
+    private UserController userController;
+    private Statistics stats;
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        taskController = new TaskController(taskService, new ObjectMapper());
+        userController = new UserController(userService, null, null, null, taskService);
+        stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Project project = new Project();
+        project.setName("Statements");
+        project.setStartDate(new Date());
+        projectId = projectRepository.save(project).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    private Task newTask() {
+        Task task = new Task();
+        task.setName("T");
+        task.setPriority(PriorityType.LOW);
+        task.setStatus(StatusType.TODO);
+        task.setCreatedBy(1L);
+        task.setProjectId(projectId);
+        return taskRepository.save(task);
+    }
+
+    /** Requêtes préparées pendant l'appel. */
+    private long statementsFor(Supplier<?> call) {
+        stats.clear();
+        call.get();
+        return stats.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("PUT /api/tasks/{id} : un select + un update ; absente : un select, 404")
+    void updateTask_twoStatements() {
+        Long id = newTask().getId();
+        Task body = new Task();
+        body.setName("Renamed");
+
+        assertThat(statementsFor(() -> taskController.updateTask(id, body, null))).isEqualTo(2);
+        assertThat(taskRepository.findById(id)).get().extracting(Task::getName).isEqualTo("Renamed");
+
+        Task missing = new Task();
+        missing.setName("X");
+        assertThat(statementsFor(() -> assertThat(taskController.updateTask(-1L, missing, null).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/tasks/{id} : un seul delete, existante ou non (404)")
+    void deleteTask_singleStatement() {
+        Long id = newTask().getId();
+
+        assertThat(statementsFor(() -> taskController.deleteTask(id))).isEqualTo(1);
+        assertThat(taskRepository.existsById(id)).isFalse();
+        assertThat(statementsFor(() -> assertThat(taskController.deleteTask(id).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/users/{id} : un seul delete, existant ou non")
+    void deleteUser_singleStatement() {
+        User user = new User();
+        user.setUsername("gone");
+        user.setEmail("gone@mpmt.local");
+        user.setPassword("x");
+        Long id = userRepository.save(user).getId();
+
+        assertThat(statementsFor(() -> assertThat(userController.deleteUser(id).getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT))).isEqualTo(1);
+        assertThat(statementsFor(() -> assertThat(userController.deleteUser(id).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND))).isEqualTo(1);
+    }
+}
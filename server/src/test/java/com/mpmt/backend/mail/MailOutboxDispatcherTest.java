@@ -0,0 +1,149 @@
+package com.mpmt.backend.mail;
+
+import com.mpmt.backend.entity.MailOutbox;
+import com.mpmt.backend.repository.MailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailOutboxDispatcherTest {
+
+    @Mock
+    private MailOutboxRepository repository;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // Envoi dans le thread appelant ; lots de 2 ; 3 essais au plus ; délais 30 s, 60 s, 120 s… plafonnés à 100 s
+        dispatcher = new MailOutboxDispatcher(repository, mailService, transactionManager, Runnable::run,
+                2, 3, Duration.ofSeconds(30), Duration.ofSeconds(100), Duration.ofMinutes(5));
+        lenient().when(mailService.getMaxMessagesPerConnection()).thenReturn(25);
+        lenient().when(mailService.sendAll(any())).thenReturn(Map.of());
+    }
+
+    private static MailOutbox mail(long id, int attempts) {
+        MailOutbox mail = new MailOutbox();
+        mail.setId(id);
+        mail.setAttempts(attempts);
+        mail.setRecipient("user" + id + "@mail.com");
+        return mail;
+    }
+
+    @Test
+    void dispatch_sendsAndMarksSent_untilPartialBatch() {
+        MailOutbox a = mail(1, 0), b = mail(2, 0), c = mail(3, 0);
+        when(repository.lockDue(any(), any())).thenReturn(List.of(a, b), List.of(c));
+
+        dispatcher.dispatch();
+
+        verify(mailService).sendAll(List.of(a, b)); // un paquet = une session SMTP
+        verify(mailService).sendAll(List.of(c));
+        verify(repository).markSent(eq(List.of(1L, 2L)), any());
+        verify(repository).markSent(eq(List.of(3L)), any());
+        verify(repository, times(2)).lockDue(any(), any()); // second lot incomplet : arrêt
+        assertThat(dispatcher.getSent()).isEqualTo(3);
+        // Les lignes réservées sont repoussées de la durée du bail
+        assertThat(a.getNextAttemptAt()).isAfter(new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    @Test
+    void dispatchBatch_stuckSession_waitIsBoundedByLease() {
+        // Pool qui ne lance jamais l'envoi : serveur SMTP muet
+        MailOutboxDispatcher stuck = new MailOutboxDispatcher(repository, mailService, transactionManager, r -> { },
+                2, 3, Duration.ofSeconds(30), Duration.ofSeconds(100), Duration.ofMillis(50));
+        when(repository.lockDue(any(), any())).thenReturn(List.of(mail(1, 0), mail(2, 0)));
+
+        assertThat(stuck.dispatchBatch()).isZero(); // passage interrompu, pas de nouveau lot
+        verify(repository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void dispatch_splitsBatchBySessionSize() {
+        MailOutbox a = mail(1, 0), b = mail(2, 0);
+        when(mailService.getMaxMessagesPerConnection()).thenReturn(1);
+        when(repository.lockDue(any(), any())).thenReturn(List.of(a, b));
+
+        dispatcher.dispatchBatch();
+
+        verify(mailService).sendAll(List.of(a));
+        verify(mailService).sendAll(List.of(b));
+    }
+
+    @Test
+    void dispatch_pullsPendingAssignmentsOfSameRecipient_intoOneSend() {
+        MailOutbox due = mail(1, 0), other = mail(2, 0), later = mail(3, 0);
+        due.setTemplate(MailService.TASK_ASSIGNED);
+        later.setTemplate(MailService.TASK_ASSIGNED);
+        later.setRecipient(due.getRecipient());
+        when(mailService.getMaxMessagesPerConnection()).thenReturn(1);
+        when(repository.lockDue(any(), any())).thenReturn(List.of(due, other));
+        when(repository.lockPendingForRecipients(eq(MailService.TASK_ASSIGNED),
+                eq(java.util.Set.of(due.getRecipient())), eq(java.util.Set.of(1L, 2L)), any()))
+                .thenReturn(List.of(later));
+
+        dispatcher.dispatchBatch();
+
+        // Un destinataire par session : les deux assignations du premier partent ensemble
+        verify(mailService).sendAll(List.of(due, later));
+        verify(mailService).sendAll(List.of(other));
+        assertThat(later.getNextAttemptAt()).isAfter(new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    @Test
+    void dispatch_partialFailure_reschedulesOnlyFailed() {
+        MailOutbox a = mail(1, 1), b = mail(2, 0);
+        when(repository.lockDue(any(), any())).thenReturn(List.of(a, b));
+        when(mailService.sendAll(any())).thenReturn(Map.of(a, new MailSendException("smtp down")));
+
+        long before = System.currentTimeMillis();
+        dispatcher.dispatchBatch();
+
+        verify(repository).markFailed(eq(1L), eq(MailOutbox.Status.PENDING), eq(2),
+                argThat(next -> next.getTime() >= before + 60_000), eq("smtp down"));
+        verify(repository).markSent(eq(List.of(2L)), any());
+        assertThat(dispatcher.getRetried()).isEqualTo(1);
+        assertThat(dispatcher.getSent()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatch_lastAttempt_marksFailed() {
+        MailOutbox a = mail(1, 2);
+        when(repository.lockDue(any(), any())).thenReturn(List.of(a));
+        when(mailService.sendAll(any())).thenReturn(Map.of(a, new MailSendException("rejected")));
+
+        dispatcher.dispatchBatch();
+
+        verify(repository).markFailed(eq(1L), eq(MailOutbox.Status.FAILED), eq(3), any(), eq("rejected"));
+        verify(repository, never()).markSent(any(), any());
+        assertThat(dispatcher.getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void backoff_doublesThenCaps() {
+        assertThat(dispatcher.backoffMillis(1)).isEqualTo(30_000);
+        assertThat(dispatcher.backoffMillis(2)).isEqualTo(60_000);
+        assertThat(dispatcher.backoffMillis(3)).isEqualTo(100_000);
+        assertThat(dispatcher.backoffMillis(64)).isEqualTo(100_000);
+    }
+}
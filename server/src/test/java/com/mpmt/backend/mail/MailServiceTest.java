@@ -0,0 +1,180 @@
+package com.mpmt.backend.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mpmt.backend.entity.MailOutbox;
+import com.mpmt.backend.entity.Task;
+import com.mpmt.backend.entity.User;
+import com.mpmt.backend.repository.MailOutboxRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailServiceTest {
+
+    private static final MailTemplates TEMPLATES = new MailTemplates();
+
+    @Mock
+    private JavaMailSender sender;
+
+    @Mock
+    private MailOutboxRepository outboxRepository;
+
+    private MailService mailService;
+
+    @BeforeEach
+    void setUp() {
+        mailService = new MailService(sender, TEMPLATES, outboxRepository, new ObjectMapper(), 2, Duration.ofMinutes(2), 3);
+        lenient().when(sender.createMimeMessage()).thenAnswer(inv -> new MimeMessage((Session) null));
+    }
+
+    private static MailOutbox outbox(String recipient) {
+        return outbox(recipient, 1);
+    }
+
+    private static MailOutbox outbox(String recipient, long taskId) {
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient(recipient);
+        mail.setTemplate(MailService.TASK_ASSIGNED);
+        mail.setParams("{\"assignee\":\"bob\",\"taskId\":\"" + taskId + "\",\"taskTitle\":\"T" + taskId + "\"}");
+        return mail;
+    }
+
+    private List<MimeMessage> sentMessages(int sessions) {
+        ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(sender, times(sessions)).send(captor.capture());
+        return captor.getAllValues().stream().flatMap(Arrays::stream).toList();
+    }
+
+    @Test
+    void enqueueTaskAssigned_writesOutbox_withoutSmtp() {
+        when(outboxRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        Task task = new Task();
+        task.setId(7L);
+        task.setTitle("Rédiger la doc");
+        task.setProjectId(3L);
+        User assignee = new User();
+        assignee.setUsername("bob");
+        assignee.setEmail("bob@mail.com");
+
+        mailService.enqueueTaskAssignedEmail(task, assignee, null);
+
+        ArgumentCaptor<MailOutbox> saved = ArgumentCaptor.forClass(MailOutbox.class);
+        verify(outboxRepository).save(saved.capture());
+        verifyNoInteractions(sender);
+        MailOutbox mail = saved.getValue();
+        assertThat(mail.getRecipient()).isEqualTo("bob@mail.com");
+        assertThat(mail.getTemplate()).isEqualTo(MailService.TASK_ASSIGNED);
+        assertThat(mail.getStatus()).isEqualTo(MailOutbox.Status.PENDING);
+        // Dû après la fenêtre de digest
+        assertThat(mail.getNextAttemptAt()).isAfter(new Date(System.currentTimeMillis() + 60_000));
+
+        MailTemplates.Rendered rendered = mailService.render(mail);
+        assertThat(rendered.subject()).isEqualTo("[MPMT] Nouvelle assignation — Tâche #7");
+        assertThat(rendered.text()).contains("Bonjour bob", "Rédiger la doc", "un membre du projet", "/projects/3");
+        assertThat(rendered.html()).contains("<strong>Rédiger la doc</strong>", "/projects/3\">");
+    }
+
+    @Test
+    void enqueueTaskAssigned_noEmail_skipped() {
+        mailService.enqueueTaskAssignedEmail(new Task(), new User(), null);
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    void sendAll_multipartTextAndHtml() throws Exception {
+        MailOutbox mail = outbox("a@mail.com");
+
+        assertThat(mailService.sendAll(List.of(mail))).isEmpty();
+
+        MimeMessage message = sentMessages(1).get(0);
+        message.saveChanges();
+        assertThat(message.getAllRecipients()).extracting(Object::toString).containsExactly("a@mail.com");
+        assertThat(message.getSubject()).isEqualTo("[MPMT] Nouvelle assignation — Tâche #1");
+        assertThat(message.getContent()).isInstanceOf(MimeMultipart.class);
+    }
+
+    @Test
+    void sendAll_groupsMessagesPerSession() {
+        List<MailOutbox> mails = List.of(outbox("a@mail.com"), outbox("b@mail.com"), outbox("c@mail.com"));
+
+        assertThat(mailService.sendAll(mails)).isEmpty();
+
+        // max 2 messages par connexion : 3 messages = 2 sessions
+        assertThat(sentMessages(2)).hasSize(3);
+    }
+
+    @Test
+    void sendAll_coalescesAssignmentsPerRecipient_intoDigests() throws Exception {
+        List<MailOutbox> mails = List.of(outbox("bob@mail.com", 1), outbox("alice@mail.com", 2),
+                outbox("bob@mail.com", 3), outbox("bob@mail.com", 4), outbox("bob@mail.com", 5));
+
+        assertThat(mailService.sendAll(mails)).isEmpty();
+
+        // bob : digest de 3 (max-items) + 1 ; alice : 1 => 3 messages, 2 sessions
+        List<MimeMessage> sent = sentMessages(2);
+        assertThat(sent).hasSize(3);
+        assertThat(sent.get(0).getSubject()).isEqualTo("[MPMT] 3 nouvelles assignations");
+        assertThat(sent.get(2).getSubject()).endsWith("Tâche #5");
+        assertThat(mailService.getCoalesced()).isEqualTo(2);
+
+        MailTemplates.Rendered digest = mailService.renderDigest(mails.stream()
+                .filter(m -> m.getRecipient().startsWith("bob")).limit(3).toList());
+        assertThat(digest.text()).contains("Bonjour bob", "#1 T1", "#3 T3", "#4 T4").doesNotContain("#5");
+        assertThat(digest.html()).contains("<strong>T4</strong>");
+    }
+
+    @Test
+    void sendAll_failedDigest_failsAllItsRows() {
+        MailOutbox a = outbox("bob@mail.com", 1), b = outbox("bob@mail.com", 2);
+        doThrow(new MailSendException("timeout")).when(sender).send(any(MimeMessage[].class));
+
+        assertThat(mailService.sendAll(List.of(a, b))).containsOnlyKeys(a, b);
+    }
+
+    @Test
+    void sendAll_reportsOnlyFailedMessages() {
+        MailOutbox a = outbox("a@mail.com"), b = outbox("b@mail.com");
+        doAnswer(inv -> {
+            MimeMessage second = inv.getArgument(1);
+            throw new MailSendException(Map.of(second, new IllegalStateException("550 mailbox unavailable")));
+        }).when(sender).send(any(MimeMessage[].class));
+
+        Map<MailOutbox, Exception> failures = mailService.sendAll(List.of(a, b));
+
+        assertThat(failures).containsOnlyKeys(b);
+        assertThat(failures.get(b)).hasMessage("550 mailbox unavailable");
+    }
+
+    @Test
+    void sendAll_connectionFailure_failsWholeSession() {
+        MailOutbox a = outbox("a@mail.com"), b = outbox("b@mail.com"), broken = outbox("c@mail.com");
+        broken.setTemplate("nope");
+        doThrow(new MailAuthenticationException("bad credentials")).when(sender).send(any(MimeMessage[].class));
+
+        Map<MailOutbox, Exception> failures = mailService.sendAll(List.of(a, broken, b));
+
+        assertThat(failures).containsOnlyKeys(a, b, broken);
+        assertThat(failures.get(broken)).isInstanceOf(IllegalArgumentException.class);
+        verify(sender, times(1)).send(any(MimeMessage[].class)); // le message non rendu n'est pas envoyé
+    }
+}
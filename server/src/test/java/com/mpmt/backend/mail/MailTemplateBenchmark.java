@@ -0,0 +1,107 @@
+package com.mpmt.backend.mail;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'ancien rendu de l'e-mail d'assignation (text block + String.formatted à chaque envoi,
+ * sujet par concaténation) au rendu par modèles précompilés de MailTemplates (tampon réutilisé),
+ * en texte seul puis texte + HTML.
+ *
+ * Lancement (depuis server/) :
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.mpmt.backend.mail.MailTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private MailTemplates templates;
+    private MailTemplate compiledText;
+    private Map<String, String> params;
+
+    @Setup
+    public void setUp() {
+        templates = new MailTemplates();
+        params = new LinkedHashMap<>();
+        params.put("assignee", "bob");
+        params.put("taskId", "4242");
+        params.put("taskTitle", "Préparer la démo du sprint");
+        params.put("assigner", "alice");
+        params.put("link", "http://localhost:8080/projects/17");
+        compiledText = MailTemplate.compile("bench", """
+                Bonjour {{assignee}},
+
+                Vous avez été assigné·e à la tâche :
+                  • ID : {{taskId}}
+                  • Titre : {{taskTitle}}
+
+                Assignée par : {{assigner}}
+                Lien : {{link}}
+
+                -- MPMT
+                """, false);
+    }
+
+    /** Ancien MailService : sujet concaténé + text block formaté (format parsé à chaque appel). */
+    @Benchmark
+    public void legacyFormatted(Blackhole bh) {
+        bh.consume("[MPMT] Nouvelle assignation — Tâche #" + params.get("taskId"));
+        bh.consume("""
+                Bonjour %s,
+
+                Vous avez été assigné·e à la tâche :
+                  • ID : %s
+                  • Titre : %s
+
+                Assignée par : %s
+                Lien : %s
+
+                -- MPMT
+                """.formatted(
+                params.get("assignee"),
+                params.get("taskId"),
+                params.get("taskTitle"),
+                params.get("assigner"),
+                params.get("link")
+        ));
+    }
+
+    /** Même corps texte, modèle compilé une fois, rendu dans un tampon réutilisé. */
+    @Benchmark
+    public void compiledTextOnly(Blackhole bh, Buffer buffer) {
+        buffer.out.setLength(0);
+        compiledText.render(params, buffer.out);
+        bh.consume(buffer.out.toString());
+    }
+
+    /** Chemin réel de MailService : sujet + texte + HTML (échappé). */
+    @Benchmark
+    public void compiledMultipart(Blackhole bh) {
+        bh.consume(templates.render(MailService.TASK_ASSIGNED, params));
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        final StringBuilder out = new StringBuilder(2048);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MailTemplateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.mpmt.backend.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplateTest {
+
+    private static String render(MailTemplate template, Map<String, ?> model) {
+        StringBuilder out = new StringBuilder();
+        template.render(model, out);
+        return out.toString();
+    }
+
+    @Test
+    void render_variablesAndMissingValues() {
+        MailTemplate template = MailTemplate.compile("t", "Bonjour {{ name }}, tâche #{{id}}{{absent}}.", false);
+
+        assertThat(render(template, Map.of("name", "Bob", "id", 7))).isEqualTo("Bonjour Bob, tâche #7.");
+    }
+
+    @Test
+    void render_sectionRepeatsPerItem_withParentFallback() {
+        MailTemplate template = MailTemplate.compile("t", "{{#items}}[{{id}} par {{who}}]{{/items}}", false);
+        Map<String, Object> model = Map.of("who", "alice", "items",
+                List.of(Map.of("id", "1"), Map.of("id", "2", "who", "bob")));
+
+        assertThat(render(template, model)).isEqualTo("[1 par alice][2 par bob]");
+    }
+
+    @Test
+    void render_html_escapesValuesNotMarkup() {
+        MailTemplate template = MailTemplate.compile("t", "<b>{{title}}</b>", true);
+
+        assertThat(render(template, Map.of("title", "<script>\"x\" & 'y'"))).isEqualTo(
+                "<b>&lt;script&gt;&quot;x&quot; &amp; &#39;y&#39;</b>");
+    }
+
+    @Test
+    void render_appendsToReusedBuffer() {
+        MailTemplate template = MailTemplate.compile("t", "{{a}}", false);
+        StringBuilder out = new StringBuilder("x=");
+        template.render(Map.of("a", "1"), out);
+        assertThat(out).hasToString("x=1");
+    }
+
+    @Test
+    void compile_rejectsMalformedTemplates() {
+        assertThatThrownBy(() -> MailTemplate.compile("t", "{{name", false)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MailTemplate.compile("t", "{{#a}}x", false)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MailTemplate.compile("t", "{{#a}}x{{/b}}", false)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MailTemplate.compile("t", "{{}}", false)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void classpathTemplates_compileAtStartup() {
+        MailTemplates templates = new MailTemplates();
+        // Clés découvertes d'après les fichiers {clé}.subject.txt, sans liste codée en dur
+        assertThat(templates.keys()).contains(MailService.TASK_ASSIGNED, MailService.TASK_ASSIGNED_DIGEST);
+
+        MailTemplates.Rendered rendered = templates.render(MailService.TASK_ASSIGNED,
+                Map.of("assignee", "bob", "taskId", "3", "taskTitle", "A & B", "assigner", "alice", "link", "http://x/p/1"));
+
+        assertThat(rendered.subject()).isEqualTo("[MPMT] Nouvelle assignation — Tâche #3");
+        assertThat(rendered.text()).contains("Titre : A & B", "Assignée par : alice");
+        assertThat(rendered.html()).contains("<strong>A &amp; B</strong>");
+        assertThatThrownBy(() -> templates.render("nope", Map.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mpmt.backend.repository;
+
+import com.mpmt.backend.entity.MailOutbox;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dialecte H2 : le verrou pessimiste du dialecte PostgreSQL (for no key update) n'est pas compris par H2
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class MailOutboxRepositoryTest {
+
+    @Autowired
+    private MailOutboxRepository repository;
+
+    private MailOutbox save(MailOutbox.Status status, long nextAttemptAt) {
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient("a@mail.com");
+        mail.setTemplate("task-assigned");
+        mail.setParams("{}");
+        mail.setStatus(status);
+        mail.setNextAttemptAt(new Date(nextAttemptAt));
+        return repository.save(mail);
+    }
+
+    @Test
+    @DisplayName("lockDue : seules les lignes PENDING échues, les plus anciennes d'abord")
+    void lockDue_onlyDuePending() {
+        long now = System.currentTimeMillis();
+        MailOutbox late = save(MailOutbox.Status.PENDING, now - 60_000);
+        MailOutbox due = save(MailOutbox.Status.PENDING, now - 1_000);
+        save(MailOutbox.Status.PENDING, now + 60_000);
+        save(MailOutbox.Status.SENT, now - 60_000);
+        save(MailOutbox.Status.FAILED, now - 60_000);
+
+        List<MailOutbox> result = repository.lockDue(new Date(now), Limit.of(10));
+
+        assertThat(result).extracting(MailOutbox::getId).containsExactly(late.getId(), due.getId());
+        assertThat(repository.lockDue(new Date(now), Limit.of(1))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("markSent / markFailed mettent à jour statut, essais et échéance")
+    void markSentAndFailed() {
+        MailOutbox a = save(MailOutbox.Status.PENDING, 0);
+        MailOutbox b = save(MailOutbox.Status.PENDING, 0);
+        Date next = new Date(System.currentTimeMillis() + 30_000);
+
+        assertThat(repository.markSent(List.of(a.getId()), new Date())).isEqualTo(1);
+        assertThat(repository.markFailed(b.getId(), MailOutbox.Status.PENDING, 1, next, "timeout")).isEqualTo(1);
+        repository.flush();
+
+        // a envoyé, b repoussé : plus rien d'échu
+        assertThat(repository.countByStatus(MailOutbox.Status.SENT)).isEqualTo(1);
+        assertThat(repository.lockDue(new Date(), Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("lockPendingForRecipients : assignations en attente des destinataires, hors lignes déjà prises")
+    void lockPendingForRecipients_sameRecipientAndTemplate() {
+        long future = System.currentTimeMillis() + 60_000;
+        MailOutbox taken = save(MailOutbox.Status.PENDING, 0);
+        MailOutbox waiting = save(MailOutbox.Status.PENDING, future);
+        save(MailOutbox.Status.SENT, future);
+        MailOutbox other = save(MailOutbox.Status.PENDING, future);
+        other.setRecipient("b@mail.com");
+
+        List<MailOutbox> result = repository.lockPendingForRecipients(
+                "task-assigned", List.of("a@mail.com"), List.of(taken.getId()), Limit.of(10));
+
+        assertThat(result).extracting(MailOutbox::getId).containsExactly(waiting.getId());
+    }
+}
@@ -1,5 +1,6 @@
 package com.mpmt.backend.repository;
 
+import com.mpmt.backend.DTO.UserUnreadCount;
 import com.mpmt.backend.entity.Notification;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -47,5 +48,85 @@ class NotificationRepositoryTest {
         List<Notification> unread = notificationRepository.findByUserIdAndReadFalse(1L);
         assertThat(unread).isNotEmpty();
         assertThat(unread.get(0).isRead()).isFalse();
+        assertThat(notificationRepository.countByUserIdAndReadFalse(1L)).isEqualTo(unread.size());
+    }
+
+    private Notification save(long userId, boolean read) {
+        Notification notif = new Notification();
+        notif.setUserId(userId);
+        notif.setTaskId(2L);
+        notif.setContent("n");
+        notif.setRead(read);
+        return notificationRepository.save(notif);
+    }
+
+    @Test
+    @DisplayName("Lecture en masse : un UPDATE, seules les non lues du bon utilisateur comptent")
+    void markReadQueries_updateOnlyUnreadOfUser() {
+        Notification a = save(7L, false);
+        Notification b = save(7L, false);
+        save(7L, true);
+        Notification other = save(8L, false);
+        notificationRepository.flush();
+
+        assertThat(notificationRepository.markReadByUserIdAndIdIn(7L, List.of(a.getId(), other.getId()))).isEqualTo(1);
+        assertThat(notificationRepository.markAllReadByUserId(7L)).isEqualTo(1); // il ne restait que b
+        assertThat(notificationRepository.findById(b.getId())).get().extracting(Notification::isRead).isEqualTo(true);
+        assertThat(notificationRepository.countByUserIdAndReadFalse(7L)).isZero();
+        assertThat(notificationRepository.countByUserIdAndReadFalse(8L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Réconciliation : non lues groupées par utilisateur, utilisateurs sans non lue absents")
+    void countUnreadByUserIdIn_groupsUnreadPerUser() {
+        save(11L, false);
+        save(11L, false);
+        save(11L, true);
+        save(12L, true);
+        save(13L, false);
+
+        assertThat(notificationRepository.countUnreadByUserIdIn(List.of(11L, 12L)))
+                .containsExactly(new UserUnreadCount(11L, 2L));
+    }
+
+    @Test
+    @DisplayName("Fil : plus récentes d'abord, pages keyset sur (sentAt, id) sans doublon ni trou")
+    void feed_keysetPagesBySentAtThenId() {
+        long t0 = 1_750_000_000_000L;
+        List<Long> expected = new java.util.ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Notification n = save(9L, i == 1);
+            n.setSentAt(new Date(t0 + (i / 2) * 1000L)); // deux notifications par seconde : égalités départagées par l'id
+            expected.add(0, notificationRepository.save(n).getId());
+        }
+        save(10L, false);
+        notificationRepository.flush();
+        // sentAt et id croissent avec l'ordre de création : attendu = ordre de création inversé
+
+        var first = notificationRepository.findFeed(9L, List.of(false, true), org.springframework.data.domain.Limit.of(2));
+        var cursor = com.mpmt.backend.DTO.NotificationSummary.Cursor.of(first.get(1));
+        var second = notificationRepository.findFeedAfter(9L, List.of(false, true), cursor.sentAt(), cursor.id(),
+                org.springframework.data.domain.Limit.of(10));
+
+        assertThat(first).extracting(com.mpmt.backend.DTO.NotificationSummary::id).containsExactly(expected.get(0), expected.get(1));
+        assertThat(second).extracting(com.mpmt.backend.DTO.NotificationSummary::id).containsExactlyElementsOf(expected.subList(2, 5));
+        assertThat(notificationRepository.findFeed(9L, List.of(false), org.springframework.data.domain.Limit.of(10)))
+                .hasSize(4)
+                .allMatch(n -> !n.read());
+    }
+
+    @Test
+    @DisplayName("Lecture / suppression conditionnelles : une seule fois 1 ligne pour une non lue")
+    void conditionalReadAndDelete_countOnlyStateChanges() {
+        Long unread = save(5L, false).getId();
+        Long read = save(5L, true).getId();
+
+        assertThat(notificationRepository.findUserIdById(unread)).contains(5L);
+        assertThat(notificationRepository.markReadById(unread)).isEqualTo(1);
+        assertThat(notificationRepository.markReadById(unread)).isZero(); // second appel concurrent : rien à décompter
+
+        assertThat(notificationRepository.deleteByIdAndRead(read, false)).isZero();
+        assertThat(notificationRepository.deleteByIdAndRead(read, true)).isEqualTo(1);
+        assertThat(notificationRepository.findUserIdById(read)).isEmpty();
     }
 }
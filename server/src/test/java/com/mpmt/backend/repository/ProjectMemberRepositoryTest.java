@@ -1,5 +1,6 @@
 package com.mpmt.backend.repository;
 
+import com.mpmt.backend.DTO.MembershipRole;
 import com.mpmt.backend.entity.Project;
 import com.mpmt.backend.entity.ProjectMember;
 import com.mpmt.backend.entity.User;
@@ -50,5 +51,9 @@ class ProjectMemberRepositoryTest {
         Optional<ProjectMember> found = projectMemberRepository.findByUserAndProject(user, project);
         assertThat(found).isPresent();
         assertThat(found.get().getRole()).isEqualTo(com.mpmt.backend.entity.RoleType.MEMBER);
+
+        // Projection utilisée par l'index d'autorisation
+        assertThat(projectMemberRepository.findRolesByUserId(user.getId()))
+                .containsExactly(new MembershipRole(project.getId(), RoleType.MEMBER));
     }
 }
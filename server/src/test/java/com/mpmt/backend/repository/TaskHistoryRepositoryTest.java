@@ -1,22 +1,34 @@
 package com.mpmt.backend.repository;
 
 import com.mpmt.backend.entity.TaskHistory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+// Statistiques Hibernate pour compter les requêtes préparées (vérification du batch JDBC)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class TaskHistoryRepositoryTest {
 
     @Autowired
     private TaskHistoryRepository repository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     @DisplayName("Should save and retrieve task history by taskId")
     void shouldSaveAndFindByTaskId() {
@@ -32,4 +44,26 @@ class TaskHistoryRepositoryTest {
         assertThat(found).isNotEmpty();
         assertThat(found.get(0).getChangeDescription()).isEqualTo("Task created");
     }
+
+    @Test
+    @DisplayName("saveAll de N entrées : ids par séquence pooled et INSERT groupés en batch JDBC")
+    void saveAll_isBatched() {
+        List<TaskHistory> histories = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            TaskHistory h = new TaskHistory();
+            h.setTaskId(100L + i);
+            h.setChangedBy(2L);
+            h.setChangeDescription("status: TODO -> DONE");
+            histories.add(h);
+        }
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        repository.saveAll(histories);
+        entityManager.flush();
+
+        // 1 appel de séquence (allocationSize 50) + 1 INSERT préparé une fois et exécuté en batch
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(histories).allSatisfy(h -> assertThat(h.getId()).isNotNull());
+    }
 }
@@ -0,0 +1,144 @@
+package com.mpmt.backend.repository;
+
+import com.mpmt.backend.DTO.TaskSearchCriteria;
+import com.mpmt.backend.DTO.TaskSearchCriteria.Cursor;
+import com.mpmt.backend.DTO.TaskSearchCriteria.Sort;
+import com.mpmt.backend.DTO.TaskSummary;
+import com.mpmt.backend.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TaskSearchRepositoryTest {
+
+    @Autowired private TaskRepository taskRepository;
+    @Autowired private ProjectRepository projectRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProjectMemberRepository projectMemberRepository;
+    @Autowired private TaskAssignmentRepository taskAssignmentRepository;
+
+    private Project project;
+    private Task noDue, early, late, done;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        project = new Project();
+        project.setName("Search Project");
+        project = projectRepository.save(project);
+
+        Project other = new Project();
+        other.setName("Other Project");
+        other = projectRepository.save(other);
+
+        noDue = save(project, "no due", StatusType.TODO, PriorityType.LOW, null);
+        early = save(project, "early", StatusType.TODO, PriorityType.HIGH, LocalDate.of(2025, 1, 10));
+        late = save(project, "late", StatusType.IN_PROGRESS, PriorityType.HIGH, LocalDate.of(2025, 3, 1));
+        done = save(project, "done", StatusType.DONE, PriorityType.MEDIUM, LocalDate.of(2025, 1, 10));
+        save(other, "elsewhere", StatusType.TODO, PriorityType.HIGH, LocalDate.of(2025, 1, 10));
+
+        alice = new User();
+        alice.setUsername("alice");
+        alice.setEmail("alice@search.test");
+        alice.setPassword("pwd");
+        alice = userRepository.save(alice);
+
+        ProjectMember pm = new ProjectMember();
+        pm.setUser(alice);
+        pm.setProject(project);
+        pm.setRole(RoleType.MEMBER);
+        pm = projectMemberRepository.save(pm);
+
+        for (Task t : List.of(early, done)) {
+            TaskAssignment a = new TaskAssignment();
+            a.setTaskId(t.getId());
+            a.setProjectMemberId(pm.getId());
+            taskAssignmentRepository.save(a);
+        }
+    }
+
+    @Test
+    void noFilter_returnsProjectTasksById() {
+        assertThat(ids(criteria(null, null, null, null, Sort.ID, null), 10))
+                .containsExactly(noDue.getId(), early.getId(), late.getId(), done.getId());
+    }
+
+    @Test
+    void filters_statusPriorityDueRangeAndAssignee() {
+        assertThat(ids(new TaskSearchCriteria(project.getId(), List.of(StatusType.TODO), List.of(PriorityType.HIGH),
+                null, null, null, Sort.ID, null), 10))
+                .containsExactly(early.getId());
+
+        assertThat(ids(criteria(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null, null, Sort.ID, null), 10))
+                .containsExactly(early.getId(), done.getId());
+
+        assertThat(ids(criteria(null, null, alice.getId(), null, Sort.ID, null), 10))
+                .containsExactly(early.getId(), done.getId());
+    }
+
+    @Test
+    void dueDateSort_keysetPagesNullsLast() {
+        List<TaskSummary> first = taskRepository.search(criteria(null, null, null, null, Sort.DUE_DATE, null), 2);
+        assertThat(first).extracting(TaskSummary::id).containsExactly(early.getId(), done.getId());
+        assertThat(first.get(0).name()).isEqualTo("early");
+        assertThat(first.get(0).projectId()).isEqualTo(project.getId());
+
+        Cursor next = Cursor.parse(Cursor.of(first.get(1)).encode(Sort.DUE_DATE), Sort.DUE_DATE);
+        List<TaskSummary> second = taskRepository.search(criteria(null, null, null, null, Sort.DUE_DATE, next), 2);
+        assertThat(second).extracting(TaskSummary::id).containsExactly(late.getId(), noDue.getId());
+
+        Cursor last = Cursor.of(second.get(1));
+        assertThat(taskRepository.search(criteria(null, null, null, null, Sort.DUE_DATE, last), 2)).isEmpty();
+    }
+
+    @Test
+    void dueDateSort_dueRangeFilter_skipsUndatedTasks() {
+        assertThat(ids(criteria(LocalDate.of(2025, 1, 1), null, null, null, Sort.DUE_DATE, null), 10))
+                .containsExactly(early.getId(), done.getId(), late.getId());
+    }
+
+    @Test
+    void idSort_keysetResumesAfterCursor() {
+        assertThat(ids(criteria(null, null, null, null, Sort.ID, new Cursor(null, early.getId())), 10))
+                .containsExactly(late.getId(), done.getId());
+    }
+
+    @Test
+    void findAssignedToUser_joinsMembershipsAndPagesById() {
+        List<TaskSummary> all = taskRepository.findAssignedToUser(alice.getId(), 0L, org.springframework.data.domain.Limit.of(10));
+        assertThat(all).extracting(TaskSummary::id).containsExactly(early.getId(), done.getId());
+        assertThat(all.get(1).status()).isEqualTo(StatusType.DONE);
+
+        assertThat(taskRepository.findAssignedToUser(alice.getId(), early.getId(), org.springframework.data.domain.Limit.of(10)))
+                .extracting(TaskSummary::id).containsExactly(done.getId());
+        assertThat(taskRepository.findAssignedToUser(alice.getId(), 0L, org.springframework.data.domain.Limit.of(1)))
+                .hasSize(1);
+    }
+
+    private TaskSearchCriteria criteria(LocalDate from, LocalDate to, Long assignee, List<StatusType> statuses,
+                                        Sort sort, Cursor after) {
+        return new TaskSearchCriteria(project.getId(), statuses, null, from, to, assignee, sort, after);
+    }
+
+    private List<Long> ids(TaskSearchCriteria c, int limit) {
+        return taskRepository.search(c, limit).stream().map(TaskSummary::id).toList();
+    }
+
+    private Task save(Project p, String name, StatusType status, PriorityType priority, LocalDate due) {
+        Task t = new Task();
+        t.setName(name);
+        t.setStatus(status);
+        t.setPriority(priority);
+        t.setDueDate(due);
+        t.setCreatedBy(1L);
+        t.setProject(p);
+        return taskRepository.save(t);
+    }
+}
@@ -1,6 +1,10 @@
 // java
 package com.mpmt.backend.repository;
 
+import com.mpmt.backend.DTO.ProjectStatusCount;
+import com.mpmt.backend.DTO.StatusCount;
+import com.mpmt.backend.DTO.DeletedTask;
+import com.mpmt.backend.DTO.TaskStatusRow;
 import com.mpmt.backend.entity.*;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +16,8 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+// Base H2 embarquée : le dialecte PostgreSQL de application.properties générerait "for no key update"
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
 class TaskRepositoryTest {
 
     @Autowired
@@ -45,5 +50,107 @@ class TaskRepositoryTest {
         Optional<Task> found = taskRepository.findById(saved.getId());
         assertThat(found).isPresent();
         assertThat(found.get().getName()).isEqualTo("Ma tâche");
+        assertThat(taskRepository.findProjectIdById(saved.getId())).contains(project.getId());
+    }
+
+    @Test
+    void countByStatusForProject_groupsByStatus() {
+        Project project = new Project();
+        project.setName("Stats Project");
+        project.setStartDate(Timestamp.valueOf(LocalDate.now().atStartOfDay()));
+        project = projectRepository.save(project);
+
+        for (StatusType status : new StatusType[]{StatusType.TODO, StatusType.TODO, StatusType.DONE}) {
+            Task task = new Task();
+            task.setName("T " + status);
+            task.setPriority(PriorityType.LOW);
+            task.setStatus(status);
+            task.setCreatedBy(1L);
+            task.setProject(project);
+            taskRepository.save(task);
+        }
+
+        assertThat(taskRepository.countByStatusForProject(project.getId()))
+                .containsExactlyInAnyOrder(
+                        new StatusCount(StatusType.TODO, 2L),
+                        new StatusCount(StatusType.DONE, 1L));
+        assertThat(taskRepository.countByProjectAndStatus())
+                .contains(new ProjectStatusCount(project.getId(), StatusType.TODO, 2L));
+    }
+
+    @Test
+    void keysetQueries_returnTasksAfterIdInOrder() {
+        Project project = new Project();
+        project.setName("Keyset Project");
+        project.setStartDate(Timestamp.valueOf(LocalDate.now().atStartOfDay()));
+        project = projectRepository.save(project);
+
+        java.util.List<Long> ids = new java.util.ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Task task = new Task();
+            task.setName("K" + i);
+            task.setPriority(PriorityType.LOW);
+            task.setStatus(StatusType.TODO);
+            task.setCreatedBy(1L);
+            task.setProject(project);
+            ids.add(taskRepository.save(task).getId());
+        }
+
+        assertThat(taskRepository.findByIdGreaterThanOrderByIdAsc(ids.get(0), org.springframework.data.domain.Limit.of(2)))
+                .extracting(Task::getId)
+                .containsExactly(ids.get(1), ids.get(2));
+        try (var stream = taskRepository.streamByIdGreaterThan(ids.get(1))) {
+            assertThat(stream.map(Task::getId).toList()).containsExactly(ids.get(2), ids.get(3));
+        }
+    }
+
+    @Test
+    void bulkStatusChange_locksChangingRows_thenSingleUpdate() {
+        Project project = new Project();
+        project.setName("Bulk Project");
+        project.setStartDate(Timestamp.valueOf(LocalDate.now().atStartOfDay()));
+        project = projectRepository.save(project);
+
+        java.util.List<Long> ids = new java.util.ArrayList<>();
+        for (StatusType status : new StatusType[]{StatusType.TODO, StatusType.DONE, StatusType.IN_PROGRESS}) {
+            Task task = new Task();
+            task.setName("B " + status);
+            task.setPriority(PriorityType.LOW);
+            task.setStatus(status);
+            task.setCreatedBy(1L);
+            task.setProject(project);
+            ids.add(taskRepository.save(task).getId());
+        }
+
+        var rows = taskRepository.lockStatusesToChange(ids, StatusType.DONE);
+        assertThat(rows).containsExactly(
+                new TaskStatusRow(ids.get(0), project.getId(), StatusType.TODO),
+                new TaskStatusRow(ids.get(2), project.getId(), StatusType.IN_PROGRESS));
+
+        assertThat(taskRepository.updateStatusByIdIn(rows.stream().map(TaskStatusRow::id).toList(), StatusType.DONE))
+                .isEqualTo(2);
+        assertThat(taskRepository.findAllById(ids)).extracting(Task::getStatus).containsOnly(StatusType.DONE);
+        // Versions : 0 à la création, +1 uniquement pour les lignes modifiées (ETag invalidé)
+        assertThat(taskRepository.findAllById(ids)).extracting(Task::getVersion).containsExactlyInAnyOrder(1L, 0L, 1L);
+    }
+
+    @Test
+    void deleteReturningStatus_singleDelete_emptyWhenMissing() {
+        Project project = new Project();
+        project.setName("Delete Project");
+        project.setStartDate(Timestamp.valueOf(LocalDate.now().atStartOfDay()));
+        project = projectRepository.save(project);
+
+        Task task = new Task();
+        task.setName("D");
+        task.setPriority(PriorityType.LOW);
+        task.setStatus(StatusType.TODO);
+        task.setCreatedBy(1L);
+        task.setProject(project);
+        Long id = taskRepository.saveAndFlush(task).getId();
+
+        // H2 : pas de RETURNING, seul l'id est renvoyé (compteurs laissés à la réconciliation)
+        assertThat(taskRepository.deleteReturningStatus(id)).contains(DeletedTask.idOnly(id));
+        assertThat(taskRepository.deleteReturningStatus(id)).isEmpty();
     }
 }
@@ -12,11 +12,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +43,9 @@ class JwtAuthFilterTest {
     @Mock
     private FilterChain filterChain;
 
+    @Spy
+    private VerifiedTokenCache tokenCache = new VerifiedTokenCache(100);
+
     @InjectMocks
     private JwtAuthFilter jwtAuthFilter;
 
@@ -49,6 +54,10 @@ class JwtAuthFilterTest {
         SecurityContextHolder.clearContext(); // Nettoyer le contexte avant chaque test
     }
 
+    private JwtService.VerifiedJwt claimsFor(String email) {
+        return new JwtService.VerifiedJwt(email, new Date(System.currentTimeMillis() + 60_000));
+    }
+
     @Test
     void doFilterInternal_OPTIONS_skipsFilter() throws ServletException, IOException {
         // Arrange
@@ -76,6 +85,27 @@ class JwtAuthFilterTest {
         verifyNoInteractions(jwtService, userService);
     }
 
+    @Test
+    void doFilterInternal_actuatorMetrics_authenticatesAdmin() throws ServletException, IOException {
+        // Seul /actuator/health est public : /actuator/metrics passe par le JWT (réservé aux ADMIN)
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/actuator/metrics/mpmt.principal.cache.hits");
+        when(request.getHeader("Authorization")).thenReturn("Bearer admin.token.here");
+
+        User admin = new User();
+        admin.setEmail("admin@example.com");
+        admin.setRole(RoleType.ADMIN);
+        when(jwtService.verify(anyString())).thenReturn(claimsFor("admin@example.com"));
+        when(userService.getPrincipalByEmail("admin@example.com")).thenReturn(Optional.of(admin));
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assert authentication != null;
+        assert authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
     @Test
     void doFilterInternal_noAuthHeader_skipsFilter() throws ServletException, IOException {
         // Arrange
@@ -118,9 +148,8 @@ class JwtAuthFilterTest {
         user.setEmail(userEmail);
         user.setRole(RoleType.MEMBER);
 
-        when(jwtService.extractEmail(anyString())).thenReturn(userEmail);
-        when(userService.getUserByEmail(userEmail)).thenReturn(Optional.of(user));
-        when(jwtService.isTokenValid(anyString(), anyString())).thenReturn(true);
+        when(jwtService.verify(anyString())).thenReturn(claimsFor(userEmail));
+        when(userService.getPrincipalByEmail(userEmail)).thenReturn(Optional.of(user));
 
         // Act
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
@@ -142,8 +171,8 @@ class JwtAuthFilterTest {
         when(request.getHeader("Authorization")).thenReturn("Bearer invalid.token.here");
 
         String userEmail = "test@example.com";
-        when(jwtService.extractEmail(anyString())).thenReturn(userEmail);
-        when(userService.getUserByEmail(userEmail)).thenReturn(Optional.empty());
+        when(jwtService.verify(anyString())).thenReturn(claimsFor(userEmail));
+        when(userService.getPrincipalByEmail(userEmail)).thenReturn(Optional.empty());
 
         // Act
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
@@ -161,8 +190,8 @@ class JwtAuthFilterTest {
         when(request.getHeader("Authorization")).thenReturn("Bearer valid.token.here");
 
         String userEmail = "test@example.com";
-        when(jwtService.extractEmail(anyString())).thenReturn(userEmail);
-        when(userService.getUserByEmail(userEmail)).thenReturn(Optional.empty());
+        when(jwtService.verify(anyString())).thenReturn(claimsFor(userEmail));
+        when(userService.getPrincipalByEmail(userEmail)).thenReturn(Optional.empty());
 
         // Act
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
@@ -178,7 +207,7 @@ class JwtAuthFilterTest {
         when(request.getMethod()).thenReturn("GET");
         when(request.getRequestURI()).thenReturn("/api/protected");
         when(request.getHeader("Authorization")).thenReturn("Bearer valid.token.here");
-        when(jwtService.extractEmail(anyString())).thenThrow(new RuntimeException("JWT parsing error"));
+        when(jwtService.verify(anyString())).thenThrow(new RuntimeException("JWT parsing error"));
 
         // Act
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
@@ -187,4 +216,29 @@ class JwtAuthFilterTest {
         verify(filterChain).doFilter(request, response);
         assert SecurityContextHolder.getContext().getAuthentication() == null;
     }
+
+    @Test
+    void doFilterInternal_cachedToken_skipsSignatureCheck() throws ServletException, IOException {
+        // Arrange
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/protected");
+        when(request.getHeader("Authorization")).thenReturn("Bearer valid.token.here");
+
+        String userEmail = "test@example.com";
+        User user = new User();
+        user.setEmail(userEmail);
+        user.setRole(RoleType.MEMBER);
+
+        when(jwtService.verify("valid.token.here")).thenReturn(claimsFor(userEmail));
+        when(userService.getPrincipalByEmail(userEmail)).thenReturn(Optional.of(user));
+
+        // Act : deux requêtes avec le même token
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert : un seul parse, la 2e requête est authentifiée depuis le cache
+        verify(jwtService, times(1)).verify("valid.token.here");
+        assert SecurityContextHolder.getContext().getAuthentication() != null;
+    }
 }
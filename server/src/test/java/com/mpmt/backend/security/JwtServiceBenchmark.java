@@ -0,0 +1,76 @@
+package com.mpmt.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'ancien chemin de validation d'un JWT (un parser construit à chaque appel,
+ * 3 parses par requête : extractEmail puis isTokenValid) au nouveau verify() (parser partagé, 1 parse).
+ *
+ * Lancement (depuis server/) :
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.mpmt.backend.security.JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+    private String email;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        jwtService.init();
+        email = "bench@mpmt.local";
+        token = jwtService.generateToken(email);
+    }
+
+    /** Ancien chemin de JwtAuthFilter : extractEmail + isTokenValid, nouveau parser à chaque claim. */
+    @Benchmark
+    public void legacyExtractThenValidate(Blackhole bh) {
+        String subject = legacyClaims().getSubject();                      // extractEmail
+        boolean valid = legacyClaims().getSubject().equals(subject)         // isTokenValid
+                && !legacyClaims().getExpiration().before(new Date());      // isTokenExpired
+        bh.consume(valid);
+    }
+
+    /** Nouveau chemin : parser partagé, sujet + expiration en un seul parse. */
+    @Benchmark
+    public void verifySinglePass(Blackhole bh) {
+        JwtService.VerifiedJwt verified = jwtService.verify(token);
+        bh.consume(verified.subject().equals(email) && verified.expiration().after(new Date()));
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(jwtService.signingKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 32}) {
+            Options options = new OptionsBuilder()
+                    .include(JwtServiceBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.mpmt.backend.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        jwtService.init();
+    }
+
+    @Test
+    void verify_returnsSubjectAndExpiration() {
+        String token = jwtService.generateToken("alice@mail.com");
+
+        JwtService.VerifiedJwt verified = jwtService.verify(token);
+
+        assertThat(verified.subject()).isEqualTo("alice@mail.com");
+        assertThat(verified.expiration()).isAfter(new Date());
+        assertThat(jwtService.isTokenValid(token, "alice@mail.com")).isTrue();
+        assertThat(jwtService.isTokenValid(token, "bob@mail.com")).isFalse();
+    }
+
+    @Test
+    void verify_tamperedToken_throws() {
+        String token = jwtService.generateToken("alice@mail.com");
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.mpmt.backend.security;
+
+import com.mpmt.backend.DTO.MembershipRole;
+import com.mpmt.backend.entity.RoleType;
+import com.mpmt.backend.repository.ProjectMemberRepository;
+import com.mpmt.backend.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ProjectMembershipIndexTest {
+
+    private ProjectMemberRepository pmRepo;
+    private TaskRepository taskRepo;
+    private ProjectMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        pmRepo = mock(ProjectMemberRepository.class);
+        taskRepo = mock(TaskRepository.class);
+        index = new ProjectMembershipIndex(pmRepo, taskRepo, 1000);
+    }
+
+    @Test
+    void warmIndex_answersWithoutQueries() {
+        when(pmRepo.findRolesByUserId(1L)).thenReturn(List.of(
+                new MembershipRole(10L, RoleType.ADMIN),
+                new MembershipRole(11L, RoleType.OBSERVER)));
+        when(taskRepo.findProjectIdById(100L)).thenReturn(Optional.of(10L));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(index.roleOf(1L, 10L)).contains(RoleType.ADMIN);
+            assertThat(index.roleOf(1L, 11L)).contains(RoleType.OBSERVER);
+            assertThat(index.isMember(1L, 12L)).isFalse();
+            assertThat(index.projectIdOfTask(100L)).isEqualTo(10L);
+        }
+
+        verify(pmRepo, times(1)).findRolesByUserId(1L);
+        verify(taskRepo, times(1)).findProjectIdById(100L);
+    }
+
+    @Test
+    void invalidateUser_reloadsMemberships() {
+        when(pmRepo.findRolesByUserId(1L))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new MembershipRole(10L, RoleType.MEMBER)));
+
+        assertThat(index.isMember(1L, 10L)).isFalse();
+        index.invalidateUser(1L);
+        assertThat(index.roleOf(1L, 10L)).contains(RoleType.MEMBER);
+    }
+
+    @Test
+    void unknownTask_isNotCached() {
+        when(taskRepo.findProjectIdById(404L)).thenReturn(Optional.empty());
+
+        assertThat(index.projectIdOfTask(404L)).isNull();
+        assertThat(index.projectIdOfTask(404L)).isNull();
+        verify(taskRepo, times(2)).findProjectIdById(404L);
+    }
+}
@@ -2,10 +2,8 @@
 package com.mpmt.backend.security;
 
 import com.mpmt.backend.entity.Project;
-import com.mpmt.backend.entity.ProjectMember;
 import com.mpmt.backend.entity.RoleType;
 import com.mpmt.backend.entity.User;
-import com.mpmt.backend.service.ProjectMemberService;
 import com.mpmt.backend.service.ProjectService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,7 +11,6 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,7 +20,7 @@ import static org.mockito.Mockito.*;
 class ProjectSecurityTest {
 
     @Mock ProjectService projectService;
-    @Mock ProjectMemberService projectMemberService;
+    @Mock ProjectMembershipIndex membershipIndex;
 
     @InjectMocks ProjectSecurity projectSecurity;
 
@@ -36,7 +33,7 @@ class ProjectSecurityTest {
     @Test
     void canDelete_adminRole_true() {
         assertTrue(projectSecurity.canDeleteProject(1L, new TestingAuthenticationToken("x", null, "ROLE_ADMIN")));
-        verifyNoInteractions(projectService, projectMemberService);
+        verifyNoInteractions(projectService, membershipIndex);
     }
 
     // 2) Auth null ⇒ false
@@ -48,6 +45,7 @@ class ProjectSecurityTest {
     // 3) Projet introuvable (non-admin) ⇒ false
     @Test
     void canDelete_projectNotFound_false() {
+        when(membershipIndex.roleOf(10L, 1L)).thenReturn(Optional.empty());
         when(projectService.getProjectById(1L)).thenReturn(Optional.empty());
         assertFalse(projectSecurity.canDeleteProject(1L, authUser(10L, "ROLE_MEMBER")));
     }
@@ -56,23 +54,19 @@ class ProjectSecurityTest {
     @Test
     void canDelete_creator_true() {
         Project p = new Project(); p.setCreatedBy(10L);
+        when(membershipIndex.roleOf(10L, 1L)).thenReturn(Optional.empty());
         when(projectService.getProjectById(1L)).thenReturn(Optional.of(p));
 
         assertTrue(projectSecurity.canDeleteProject(1L, authUser(10L, "ROLE_MEMBER")));
-        verify(projectMemberService, never()).findMembersByProjectId(anyLong());
     }
 
-    // 5) Membre ADMIN du projet ⇒ true
+    // 5) Membre ADMIN du projet ⇒ true, sans charger le projet
     @Test
     void canDelete_projectAdminMember_true() {
-        Project p = new Project(); p.setCreatedBy(99L);
-        when(projectService.getProjectById(1L)).thenReturn(Optional.of(p));
-
-        ProjectMember pm = new ProjectMember();
-        pm.setUserId(20L); pm.setRole(RoleType.ADMIN);
-        when(projectMemberService.findMembersByProjectId(1L)).thenReturn(List.of(pm));
+        when(membershipIndex.roleOf(20L, 1L)).thenReturn(Optional.of(RoleType.ADMIN));
 
         assertTrue(projectSecurity.canDeleteProject(1L, authUser(20L, "ROLE_MEMBER")));
+        verifyNoInteractions(projectService);
     }
 
     // 6) Membre non-admin ⇒ false
@@ -80,10 +74,7 @@ class ProjectSecurityTest {
     void canDelete_memberNotAdmin_false() {
         Project p = new Project(); p.setCreatedBy(99L);
         when(projectService.getProjectById(1L)).thenReturn(Optional.of(p));
-
-        ProjectMember pm = new ProjectMember();
-        pm.setUserId(21L); pm.setRole(RoleType.MEMBER);
-        when(projectMemberService.findMembersByProjectId(1L)).thenReturn(List.of(pm));
+        when(membershipIndex.roleOf(21L, 1L)).thenReturn(Optional.of(RoleType.MEMBER));
 
         assertFalse(projectSecurity.canDeleteProject(1L, authUser(21L, "ROLE_MEMBER")));
     }
@@ -93,7 +84,6 @@ class ProjectSecurityTest {
     void canDelete_principalNotUser_false() {
         Project p = new Project(); p.setCreatedBy(50L);
         when(projectService.getProjectById(1L)).thenReturn(Optional.of(p));
-        when(projectMemberService.findMembersByProjectId(1L)).thenReturn(List.of());
 
         TestingAuthenticationToken auth = new TestingAuthenticationToken("string-principal", null, "ROLE_MEMBER");
         assertFalse(projectSecurity.canDeleteProject(1L, auth));
@@ -0,0 +1,49 @@
+package com.mpmt.backend.security;
+
+import com.mpmt.backend.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSecurityTest {
+
+    @Mock ProjectMembershipIndex membershipIndex;
+
+    @InjectMocks TaskSecurity taskSecurity;
+
+    private TestingAuthenticationToken authUser(long id, String... roles) {
+        User u = new User(); u.setId(id);
+        TestingAuthenticationToken auth = new TestingAuthenticationToken(u, null, roles);
+        auth.setAuthenticated(true);
+        return auth;
+    }
+
+    @Test
+    void canEdit_globalAdmin_true() {
+        assertTrue(taskSecurity.canEditTask(1L, authUser(1L, "ROLE_ADMIN")));
+        verifyNoInteractions(membershipIndex);
+    }
+
+    @Test
+    void canEdit_projectMember_true() {
+        when(membershipIndex.projectIdOfTask(5L)).thenReturn(10L);
+        when(membershipIndex.isMember(2L, 10L)).thenReturn(true);
+
+        assertTrue(taskSecurity.canEditTask(5L, authUser(2L, "ROLE_MEMBER")));
+    }
+
+    @Test
+    void canEdit_unknownTask_false() {
+        when(membershipIndex.projectIdOfTask(5L)).thenReturn(null);
+
+        assertFalse(taskSecurity.canEditTask(5L, authUser(2L, "ROLE_MEMBER")));
+        verify(membershipIndex, never()).isMember(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,55 @@
+package com.mpmt.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+
+    @Test
+    void put_thenGet_returnsSubject() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-a", "a@mail.com", inOneHour());
+
+        assertThat(cache.get("token-a")).isNotNull();
+        assertThat(cache.get("token-a").subject()).isEqualTo("a@mail.com");
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    @Test
+    void expiredToken_isNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-a", "a@mail.com", new Date(System.currentTimeMillis() - 1000));
+
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void maxSize_evictsLeastRecentlyUsed() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("token-a", "a@mail.com", inOneHour());
+        cache.put("token-b", "b@mail.com", inOneHour());
+        cache.get("token-a"); // a devient le plus récent
+        cache.put("token-c", "c@mail.com", inOneHour());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("token-a")).isNotNull();
+        assertThat(cache.get("token-b")).isNull();
+        assertThat(cache.get("token-c")).isNotNull();
+    }
+
+    @Test
+    void zeroSize_disablesCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("token-a", "a@mail.com", inOneHour());
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+}
@@ -0,0 +1,140 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.TaskSummary;
+import com.mpmt.backend.MpmtBackendApplication;
+import com.mpmt.backend.entity.*;
+import com.mpmt.backend.repository.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'ancien GET /api/users/{id}/tasks (memberships, puis assignments via IN, puis tasks via IN :
+ * 3 allers-retours et des listes d'ids intermédiaires) à la requête de jointure unique
+ * TaskRepository.findAssignedToUser, pour un utilisateur membre de 100 et 500 projets (10 tâches assignées par projet).
+ *
+ * Lancement (depuis server/) :
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.mpmt.backend.service.AssignedTasksBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignedTasksBenchmark {
+
+    private static final int TASKS_PER_PROJECT = 10;
+
+    @Param({"100", "500"})
+    public int memberships;
+
+    private ConfigurableApplicationContext context;
+    private ProjectMemberRepository projectMemberRepository;
+    private TaskAssignmentRepository taskAssignmentRepository;
+    private TaskRepository taskRepository;
+    private TaskAssignmentService taskAssignmentService;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MpmtBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments de ligne de commande : prioritaires sur application.properties (PostgreSQL)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:assigned" + memberships + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.sql.init.mode=never",
+                        "--logging.level.root=WARN");
+        projectMemberRepository = context.getBean(ProjectMemberRepository.class);
+        taskAssignmentRepository = context.getBean(TaskAssignmentRepository.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        taskAssignmentService = context.getBean(TaskAssignmentService.class);
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@mpmt.local");
+        user.setPassword("x");
+        user = context.getBean(UserRepository.class).save(user);
+        userId = user.getId();
+
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        List<Object[]> tasks = new ArrayList<>();
+        for (int p = 0; p < memberships; p++) {
+            Project project = new Project();
+            project.setName("bench-" + p);
+            project = projectRepository.save(project);
+
+            ProjectMember pm = new ProjectMember();
+            pm.setUser(user);
+            pm.setProject(project);
+            pm.setRole(RoleType.MEMBER);
+            projectMemberRepository.save(pm);
+
+            for (int t = 0; t < TASKS_PER_PROJECT; t++) {
+                tasks.add(new Object[]{"task-" + p + "-" + t, "MEDIUM", "TODO", userId, project.getId()});
+            }
+        }
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        // Schéma Flyway : les ids viennent des séquences, comme pour Hibernate (pas de valeur par défaut)
+        jdbc.batchUpdate("insert into tasks (id, name, priority, status, created_by, project_id) " +
+                "values (next value for tasks_seq, ?, ?, ?, ?, ?)", tasks);
+        // Chaque tâche est assignée à l'utilisateur via son appartenance au projet de la tâche
+        jdbc.update("insert into task_assignment (id, task_id, project_member_id) " +
+                "select next value for task_assignment_seq, t.id, pm.id " +
+                "from tasks t join project_member pm on pm.project_id = t.project_id " +
+                "where pm.user_id = ?", userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Ancien TaskAssignmentService.findTasksAssignedToUser : 3 requêtes, listes IN de taille memberships puis tâches. */
+    @Benchmark
+    public List<Task> legacyThreeRoundTrips() {
+        List<Long> memberIds = projectMemberRepository.findByUser_Id(userId).stream()
+                .map(ProjectMember::getId)
+                .toList();
+        List<Long> taskIds = taskAssignmentRepository.findByProjectMemberIdIn(memberIds).stream()
+                .map(TaskAssignment::getTaskId)
+                .toList();
+        return taskRepository.findAllById(taskIds);
+    }
+
+    /** Jointure unique, toutes les tâches (même volume que l'ancien chemin). */
+    @Benchmark
+    public List<TaskSummary> singleJoinAll() {
+        return taskRepository.findAssignedToUser(userId, 0L, Limit.of(Integer.MAX_VALUE));
+    }
+
+    /** Jointure unique, première page telle que servie par l'endpoint. */
+    @Benchmark
+    public List<TaskSummary> singleJoinFirstPage() {
+        return taskAssignmentService.findTasksAssignedToUser(userId, null, TaskService.MAX_PAGE_SIZE + 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AssignedTasksBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
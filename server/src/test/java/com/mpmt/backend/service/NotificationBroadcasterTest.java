@@ -0,0 +1,188 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.entity.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationBroadcasterTest {
+
+    /** Emitter qui enregistre les événements au lieu d'écrire dans une réponse HTTP. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new ArrayList<>();
+        boolean completed;
+        Throwable error;
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) throw new IOException("client parti");
+            StringBuilder frame = new StringBuilder();
+            builder.build().forEach(part -> frame.append(part.getData()));
+            frames.add(frame.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            error = ex;
+        }
+    }
+
+    private static final Instant SENT_AT = Instant.parse("2025-06-30T10:15:30Z");
+
+    private final List<Runnable> queued = new ArrayList<>();
+    // Envoi manuel : permet de remplir une file avant qu'elle ne soit vidée
+    private final Executor manualSender = queued::add;
+
+    private void runSender() {
+        while (!queued.isEmpty()) queued.remove(0).run();
+    }
+
+    private static Notification notification(long id, long userId) {
+        Notification n = new Notification();
+        n.setId(id);
+        n.setUserId(userId);
+        n.setTaskId(1L);
+        n.setContent("c" + id);
+        n.setSentAt(Date.from(SENT_AT));
+        return n;
+    }
+
+    @Test
+    void publish_fansOutToAllConnectionsOfThatUserOnly() {
+        NotificationBroadcaster broadcaster = new NotificationBroadcaster(Runnable::run, 10, Duration.ofMinutes(1));
+        RecordingEmitter a1 = new RecordingEmitter();
+        RecordingEmitter a2 = new RecordingEmitter();
+        RecordingEmitter b = new RecordingEmitter();
+        broadcaster.register(1L, a1);
+        broadcaster.register(1L, a2);
+        broadcaster.register(2L, b);
+
+        broadcaster.publish(notification(5L, 1L));
+
+        assertThat(a1.frames).singleElement().asString().contains("id:2025-06-30T10:15:30Z_5", "event:notification");
+        assertThat(a2.frames).hasSize(1);
+        assertThat(b.frames).isEmpty();
+        assertThat(broadcaster.getSent()).isEqualTo(2);
+    }
+
+    @Test
+    void publish_inTransaction_deliveredAfterCommitOnly() {
+        NotificationBroadcaster broadcaster = new NotificationBroadcaster(Runnable::run, 10, Duration.ofMinutes(1));
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(1L, emitter);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            broadcaster.publish(notification(5L, 1L));
+            assertThat(emitter.frames).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(emitter.frames).hasSize(1);
+    }
+
+    @Test
+    void fullBuffer_closesSlowConnection() {
+        NotificationBroadcaster broadcaster = new NotificationBroadcaster(manualSender, 2, Duration.ofMinutes(1));
+        RecordingEmitter slow = new RecordingEmitter();
+        broadcaster.register(1L, slow);
+
+        for (long id = 1; id <= 3; id++) broadcaster.publish(notification(id, 1L));
+
+        assertThat(slow.completed).isTrue();
+        assertThat(broadcaster.getOverflows()).isEqualTo(1);
+        assertThat(broadcaster.connectionCount()).isZero();
+
+        runSender(); // les 2 événements déjà en file partent encore, dans l'ordre
+        assertThat(slow.frames).hasSize(2);
+        assertThat(slow.frames.get(0)).contains("id:2025-06-30T10:15:30Z_1");
+    }
+
+    @Test
+    void heartbeat_sendsComment_andDropsDeadConnections() {
+        NotificationBroadcaster broadcaster = new NotificationBroadcaster(Runnable::run, 10, Duration.ofMinutes(1));
+        RecordingEmitter alive = new RecordingEmitter();
+        RecordingEmitter dead = new RecordingEmitter();
+        dead.failing = true;
+        broadcaster.register(1L, alive);
+        broadcaster.register(1L, dead);
+
+        broadcaster.heartbeat();
+
+        assertThat(alive.frames).singleElement().asString().startsWith(":heartbeat");
+        assertThat(broadcaster.connectionCount()).isEqualTo(1);
+        // Requête asynchrone terminée tout de suite, sans attendre le timeout SSE
+        assertThat(dead.error).isInstanceOf(IOException.class);
+        assertThat(alive.error).isNull();
+    }
+
+    @Test
+    void subscribe_fullBacklog_fitsBufferAndEndsWithResync() {
+        NotificationBroadcaster broadcaster = new NotificationBroadcaster(manualSender, 5, Duration.ofMinutes(1));
+        List<Integer> limits = new ArrayList<>();
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        broadcaster.subscribe(1L, emitter, limit -> {
+            limits.add(limit);
+            List<Notification> missed = new ArrayList<>();
+            for (long id = 1; id <= limit; id++) missed.add(notification(id, 1L));
+            return missed;
+        });
+
+        // rien n'est vidé avant la fin du rattrapage : "connected" + 3 notifications + "resync" tiennent dans 5 places
+        assertThat(limits).containsExactly(broadcaster.maxBacklog() + 1);
+        assertThat(broadcaster.getOverflows()).isZero();
+        assertThat(broadcaster.getResyncs()).isEqualTo(1);
+        assertThat(broadcaster.connectionCount()).isEqualTo(1);
+
+        runSender();
+        assertThat(emitter.frames).hasSize(5);
+        assertThat(emitter.frames.get(0)).startsWith(":connected");
+        assertThat(emitter.frames.get(3)).contains("id:2025-06-30T10:15:30Z_3");
+        // la 4e notification lue n'est pas envoyée : resync, id = dernière envoyée pour reprendre de là
+        assertThat(emitter.frames.get(4)).contains("event:resync", "id:2025-06-30T10:15:30Z_3");
+        assertThat(emitter.completed).isFalse();
+    }
+
+    @Test
+    void subscribe_registersBeforeReadingBacklog() {
+        NotificationBroadcaster broadcaster = new NotificationBroadcaster(manualSender, 5, Duration.ofMinutes(1));
+        List<Integer> connectionsSeen = new ArrayList<>();
+
+        broadcaster.subscribe(1L, new RecordingEmitter(), limit -> {
+            connectionsSeen.add(broadcaster.connectionCount());
+            return List.of(notification(1L, 1L));
+        });
+
+        assertThat(connectionsSeen).containsExactly(1);
+        assertThat(broadcaster.getResyncs()).isZero();
+    }
+
+    @Test
+    void subscribe_backlogFailure_unregisters() {
+        NotificationBroadcaster broadcaster = new NotificationBroadcaster(manualSender, 5, Duration.ofMinutes(1));
+
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalStateException.class,
+                () -> broadcaster.subscribe(1L, new RecordingEmitter(), limit -> { throw new IllegalStateException("base indisponible"); }));
+
+        assertThat(broadcaster.connectionCount()).isZero();
+    }
+}
@@ -7,12 +7,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.IntFunction;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class NotificationServiceTest {
@@ -20,6 +26,12 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private NotificationBroadcaster broadcaster;
+
+    @Mock
+    private UnreadNotificationCounters unreadCounters;
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -44,19 +56,153 @@ class NotificationServiceTest {
         Notification saved = notificationService.createNotification(notif);
         assertThat(saved.getContent()).isEqualTo("Test");
         verify(notificationRepository, times(1)).save(notif);
+        verify(broadcaster).publish(notif);
+        verify(unreadCounters).onCreated(null, false);
+    }
+
+    /** Le broadcaster simulé lit le rattrapage comme le vrai, après avoir enregistré la connexion. */
+    private List<List<Notification>> backlogsReadOnSubscribe() {
+        List<List<Notification>> backlogs = new ArrayList<>();
+        when(broadcaster.subscribe(any(), any())).thenAnswer(inv -> {
+            IntFunction<List<Notification>> backlog = inv.getArgument(1);
+            backlogs.add(backlog.apply(99));
+            return null;
+        });
+        return backlogs;
+    }
+
+    @Test
+    @DisplayName("Flux SSE : rattrapage depuis (sentAt - marge) du Last-Event-ID, aucun accès base sans")
+    void subscribe_withLastEventId_sendsBacklogWithOverlap() {
+        List<List<Notification>> backlogs = backlogsReadOnSubscribe();
+        Notification missed = new Notification();
+        Date since = Date.from(java.time.Instant.parse("2025-06-30T10:15:00Z"));
+        when(notificationRepository.findByUserIdAndSentAtGreaterThanEqualOrderBySentAtAscIdAsc(eq(3L), eq(since), any()))
+                .thenReturn(List.of(missed));
+
+        notificationService.subscribe(3L, "2025-06-30T10:15:30Z_40");
+        notificationService.subscribe(3L, null);
+
+        assertThat(backlogs).containsExactly(List.of(missed), List.of());
+        verify(notificationRepository, times(1))
+                .findByUserIdAndSentAtGreaterThanEqualOrderBySentAtAscIdAsc(3L, since, Limit.of(99));
+    }
+
+    @Test
+    @DisplayName("Flux SSE : Last-Event-ID numérique (ancien client) repris depuis l'envoi de cette notification")
+    void subscribe_legacyNumericLastEventId_usesSentAtOfThatNotification() {
+        backlogsReadOnSubscribe();
+        Notification last = new Notification();
+        last.setId(40L);
+        last.setSentAt(Date.from(java.time.Instant.parse("2025-06-30T10:15:30Z")));
+        when(notificationRepository.findById(40L)).thenReturn(Optional.of(last));
+
+        notificationService.subscribe(3L, "40");
+
+        verify(notificationRepository).findByUserIdAndSentAtGreaterThanEqualOrderBySentAtAscIdAsc(
+                eq(3L), eq(Date.from(java.time.Instant.parse("2025-06-30T10:15:00Z"))), any());
     }
 
     @Test
-    @DisplayName("Should mark notification as read")
+    @DisplayName("Flux SSE : Last-Event-ID mal formé -> IllegalArgumentException")
+    void subscribe_malformedLastEventId_throws() {
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class,
+                () -> notificationService.subscribe(3L, "abc"));
+        verifyNoInteractions(broadcaster);
+    }
+
+    @Test
+    @DisplayName("Marquer lue : UPDATE conditionnel, décompte si la ligne est passée à lue")
     void shouldMarkAsRead() {
-        Notification notif = new Notification();
-        notif.setId(1L);
-        notif.setRead(false);
-        when(notificationRepository.findById(1L)).thenReturn(Optional.of(notif));
-        when(notificationRepository.save(notif)).thenReturn(notif);
+        when(notificationRepository.findUserIdById(1L)).thenReturn(Optional.of(4L));
+        when(notificationRepository.markReadById(1L)).thenReturn(1);
 
         notificationService.markAsRead(1L);
-        assertThat(notif.isRead()).isTrue();
-        verify(notificationRepository).save(notif);
+
+        verify(unreadCounters).onRead(4L);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Marquer lue une notification déjà lue (ou lue en concurrence) : compteur inchangé")
+    void markAsRead_alreadyRead_noop() {
+        when(notificationRepository.findUserIdById(1L)).thenReturn(Optional.of(4L));
+        when(notificationRepository.markReadById(1L)).thenReturn(0);
+
+        notificationService.markAsRead(1L);
+
+        verifyNoInteractions(unreadCounters);
+    }
+
+    @Test
+    @DisplayName("Suppression d'une non lue : décompte du destinataire")
+    void deleteNotification_unread_decrements() {
+        when(notificationRepository.findUserIdById(2L)).thenReturn(Optional.of(4L));
+        when(notificationRepository.deleteByIdAndRead(2L, false)).thenReturn(1);
+
+        notificationService.deleteNotification(2L);
+
+        verify(unreadCounters).onDeleted(4L, false);
+        verify(notificationRepository, never()).deleteByIdAndRead(2L, true);
+    }
+
+    @Test
+    @DisplayName("Suppression d'une lue : second DELETE, compteur inchangé")
+    void deleteNotification_read_noDecrement() {
+        when(notificationRepository.findUserIdById(2L)).thenReturn(Optional.of(4L));
+        when(notificationRepository.deleteByIdAndRead(2L, false)).thenReturn(0);
+
+        notificationService.deleteNotification(2L);
+
+        verify(notificationRepository).deleteByIdAndRead(2L, true);
+        verifyNoInteractions(unreadCounters);
+    }
+
+    @Test
+    @DisplayName("Compteur de non lues servi par le cache")
+    void getUnreadCount_servedByCounters() {
+        when(unreadCounters.get(4L)).thenReturn(3L);
+        assertThat(notificationService.getUnreadCount(4L)).isEqualTo(3L);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    @DisplayName("Tout marquer comme lu : un UPDATE, compteur diminué du nombre modifié")
+    void markAllRead_singleUpdate() {
+        when(notificationRepository.markAllReadByUserId(4L)).thenReturn(12);
+
+        assertThat(notificationService.markAllRead(4L)).isEqualTo(12);
+
+        verify(unreadCounters).onRead(4L, 12);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Marquer des ids comme lus : dédoublonnés, un UPDATE par paquet d'ids")
+    void markRead_chunksIds() {
+        java.util.List<Long> ids = new java.util.ArrayList<>();
+        for (long i = 1; i <= NotificationService.MARK_READ_CHUNK + 1; i++) ids.add(i);
+        ids.add(1L);
+        when(notificationRepository.markReadByUserIdAndIdIn(eq(4L), any())).thenReturn(5, 1);
+
+        assertThat(notificationService.markRead(4L, ids)).isEqualTo(6);
+
+        verify(notificationRepository, times(2)).markReadByUserIdAndIdIn(eq(4L), any());
+        verify(unreadCounters).onRead(4L, 6);
+    }
+
+    @Test
+    @DisplayName("Fil : première page sans curseur, suivantes en keyset ; taille bornée")
+    void getFeed_choosesQueryByCursor() {
+        var after = new com.mpmt.backend.DTO.NotificationSummary.Cursor(new java.sql.Timestamp(1000L), 8L);
+
+        notificationService.getFeed(4L, true, null, 21);
+        notificationService.getFeed(4L, false, after, 21);
+
+        verify(notificationRepository).findFeed(eq(4L), eq(java.util.List.of(false)), any());
+        verify(notificationRepository).findFeedAfter(eq(4L), eq(java.util.List.of(false, true)), eq(after.sentAt()), eq(8L), any());
+        assertThat(NotificationService.clampFeedSize(null)).isEqualTo(NotificationService.FEED_DEFAULT_SIZE);
+        assertThat(NotificationService.clampFeedSize(10_000)).isEqualTo(NotificationService.FEED_MAX_SIZE);
+        assertThat(NotificationService.clampFeedSize(0)).isEqualTo(1);
     }
 }
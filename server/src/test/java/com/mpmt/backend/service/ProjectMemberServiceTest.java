@@ -7,6 +7,7 @@ import com.mpmt.backend.entity.User;
 import com.mpmt.backend.repository.ProjectMemberRepository;
 import com.mpmt.backend.repository.ProjectRepository;
 import com.mpmt.backend.repository.UserRepository;
+import com.mpmt.backend.security.ProjectMembershipIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -29,6 +30,8 @@ class ProjectMemberServiceTest {
     private ProjectRepository projectRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ProjectMembershipIndex membershipIndex;
 
     @InjectMocks
     private ProjectMemberService service;
@@ -105,8 +108,9 @@ class ProjectMemberServiceTest {
 
     @Test
     void shouldDeleteProjectMember() {
-        doNothing().when(projectMemberRepository).deleteById(100L);
+        when(projectMemberRepository.findById(100L)).thenReturn(Optional.of(member));
         service.deleteProjectMember(100L);
-        verify(projectMemberRepository).deleteById(100L);
+        verify(projectMemberRepository).delete(member);
+        verify(membershipIndex).invalidateUser(1L);
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.ProjectStats;
+import com.mpmt.backend.DTO.ProjectStatusCount;
+import com.mpmt.backend.DTO.StatusCount;
+import com.mpmt.backend.entity.StatusType;
+import com.mpmt.backend.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ProjectStatsCountersTest {
+
+    private TaskRepository taskRepository;
+    private ProjectStatsCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        counters = new ProjectStatsCounters(taskRepository, 100);
+        when(taskRepository.countByStatusForProject(10L)).thenReturn(List.of(
+                new StatusCount(StatusType.TODO, 3L),
+                new StatusCount(StatusType.DONE, 1L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_loadsOnceThenServesFromMemory() {
+        ProjectStats first = counters.get(10L);
+        ProjectStats second = counters.get(10L);
+
+        assertThat(first.getTotalTasks()).isEqualTo(4);
+        assertThat(first.getTodoCount()).isEqualTo(3);
+        assertThat(first.getProgress()).isEqualTo(25);
+        assertThat(second.getDoneCount()).isEqualTo(1);
+        verify(taskRepository, times(1)).countByStatusForProject(10L);
+    }
+
+    @Test
+    void deltas_updateLoadedProject() {
+        counters.get(10L);
+
+        counters.onTaskCreated(10L, StatusType.IN_PROGRESS);
+        counters.onStatusChanged(10L, StatusType.TODO, StatusType.DONE);
+        counters.onTaskDeleted(10L, StatusType.TODO);
+
+        ProjectStats stats = counters.get(10L);
+        assertThat(stats.getTodoCount()).isEqualTo(1);
+        assertThat(stats.getInProgressCount()).isEqualTo(1);
+        assertThat(stats.getDoneCount()).isEqualTo(2);
+        assertThat(stats.getTotalTasks()).isEqualTo(4);
+    }
+
+    @Test
+    void deltas_ignoredForUnloadedProject() {
+        counters.onTaskCreated(10L, StatusType.TODO);
+
+        // Le chargement lit l'état commité : le delta ne doit pas être compté deux fois
+        assertThat(counters.get(10L).getTodoCount()).isEqualTo(3);
+    }
+
+    @Test
+    void delta_inTransaction_appliedOnlyAfterCommit() {
+        counters.get(10L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        counters.onTaskCreated(10L, StatusType.TODO);
+        assertThat(counters.get(10L).getTodoCount()).isEqualTo(3);
+
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        syncs.forEach(TransactionSynchronization::afterCommit);
+        assertThat(counters.get(10L).getTodoCount()).isEqualTo(4);
+    }
+
+    @Test
+    void reconcile_correctsAndReportsDrift() {
+        counters.get(10L);
+        counters.onTaskCreated(10L, StatusType.TODO); // écriture non vue par la base -> dérive simulée
+        when(taskRepository.countByProjectAndStatus()).thenReturn(List.of(
+                new ProjectStatusCount(10L, StatusType.TODO, 3L),
+                new ProjectStatusCount(10L, StatusType.DONE, 1L),
+                new ProjectStatusCount(20L, StatusType.TODO, 7L)));
+
+        assertThat(counters.reconcile()).isEqualTo(1);
+        assertThat(counters.get(10L).getTodoCount()).isEqualTo(3);
+        assertThat(counters.getDriftCorrections()).isEqualTo(1);
+
+        // Deuxième passage : plus d'écart
+        assertThat(counters.reconcile()).isZero();
+    }
+
+    @Test
+    void reconcile_nothingLoaded_noQuery() {
+        assertThat(counters.reconcile()).isZero();
+        verify(taskRepository, never()).countByProjectAndStatus();
+    }
+}
@@ -1,6 +1,7 @@
 // java
 package com.mpmt.backend.service;
 
+import com.mpmt.backend.DTO.TaskSummary;
 import com.mpmt.backend.entity.TaskAssignment;
 import com.mpmt.backend.mail.MailService;
 import com.mpmt.backend.repository.TaskAssignmentRepository;
@@ -10,9 +11,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 
 class TaskAssignmentServiceTest {
@@ -48,4 +52,30 @@ class TaskAssignmentServiceTest {
         assertThat(found).isPresent();
         assertThat(found.get().getId()).isEqualTo(99L);
     }
+
+    @Test
+    void findTasksAssignedToUser_singleJoinQuery() {
+        TaskSummary summary = new TaskSummary(5L, 1L, "T", null, null, null, null, null);
+        given(taskRepository.findAssignedToUser(eq(7L), eq(0L), any())).willReturn(List.of(summary));
+
+        assertThat(service.findTasksAssignedToUser(7L, null, 50)).containsExactly(summary);
+        Mockito.verifyNoInteractions(projectMemberRepository, taskAssignmentRepository);
+    }
+
+    @Test
+    void create_enqueuesAssignmentEmail() {
+        TaskAssignment assignment = new TaskAssignment();
+        assignment.setTaskId(5L);
+        assignment.setProjectMemberId(9L);
+        com.mpmt.backend.entity.Task task = new com.mpmt.backend.entity.Task();
+        com.mpmt.backend.entity.User user = new com.mpmt.backend.entity.User();
+        com.mpmt.backend.entity.ProjectMember pm = new com.mpmt.backend.entity.ProjectMember();
+        pm.setUser(user);
+        given(taskAssignmentRepository.save(assignment)).willReturn(assignment);
+        given(taskRepository.findById(5L)).willReturn(Optional.of(task));
+        given(projectMemberRepository.findById(9L)).willReturn(Optional.of(pm));
+
+        assertThat(service.create(assignment)).isSameAs(assignment);
+        Mockito.verify(mailService).enqueueTaskAssignedEmail(task, user, null);
+    }
 }
@@ -0,0 +1,176 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.entity.TaskHistory;
+import com.mpmt.backend.repository.TaskHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TaskHistoryWriterTest {
+
+    private final TaskHistoryRepository repository = mock(TaskHistoryRepository.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private TaskHistoryWriter writer;
+
+    private TaskHistoryWriter newWriter(int capacity, int flushSize, Duration interval) {
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<?> batch = inv.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch;
+        });
+        writer = new TaskHistoryWriter(repository, txManager, capacity, flushSize, interval, Duration.ofSeconds(5));
+        return writer;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) writer.stop();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Condition non atteinte en 5 s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static TaskHistory history(long taskId) {
+        TaskHistory h = new TaskHistory();
+        h.setTaskId(taskId);
+        h.setChangedBy(1L);
+        h.setChangeDescription("status: TODO -> DONE");
+        return h;
+    }
+
+    @Test
+    void backgroundWriter_batchesByFlushSize() {
+        newWriter(100, 5, Duration.ofSeconds(10));
+        for (int i = 0; i < 10; i++) writer.enqueue(history(i));
+        writer.start();
+
+        waitUntil(() -> writer.getWritten() == 10);
+        assertThat(batchSizes).containsExactly(5, 5);
+    }
+
+    @Test
+    void backgroundWriter_flushesPartialBatchAfterInterval() {
+        newWriter(100, 50, Duration.ofMillis(50));
+        writer.start();
+        writer.enqueue(history(1));
+        writer.enqueue(history(2));
+
+        waitUntil(() -> writer.getWritten() == 2);
+        assertThat(batchSizes).containsExactly(2);
+    }
+
+    @Test
+    void fullQueue_callerWritesSynchronously() {
+        newWriter(1, 10, Duration.ofSeconds(10)); // writer non démarré : la file ne se vide pas
+        writer.enqueue(history(1));
+        writer.enqueue(history(2));
+
+        assertThat(writer.getCallerRuns()).isEqualTo(1);
+        assertThat(writer.pending()).isEqualTo(1);
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void stop_drainsPendingEntries() throws InterruptedException {
+        newWriter(100, 2, Duration.ofSeconds(10));
+        for (int i = 0; i < 5; i++) writer.enqueue(history(i));
+
+        writer.stop();
+        writer = null;
+
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void failedBatch_retriedOneByOne() {
+        newWriter(100, 10, Duration.ofSeconds(10));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<TaskHistory> batch = inv.getArgument(0);
+            if (batch.size() > 1 || batch.get(0).getTaskId() == 2L) throw new IllegalStateException("boom");
+            return batch;
+        });
+        for (int i = 1; i <= 3; i++) writer.enqueue(history(i));
+
+        writer.flushPending();
+
+        assertThat(writer.getWritten()).isEqualTo(2);
+        assertThat(writer.getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void awaitWritten_flushesPartialBatchWithoutWaitingInterval() {
+        newWriter(100, 50, Duration.ofSeconds(30));
+        writer.start();
+        writer.enqueue(history(1));
+        writer.enqueue(history(2));
+
+        long start = System.nanoTime();
+        assertThat(writer.awaitWritten(1L)).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(writer.getWritten()).isEqualTo(2);
+        assertThat(batchSizes).containsExactly(2);
+        assertThat(writer.awaitWritten(3L)).isTrue(); // rien en attente pour cette tâche
+    }
+
+    @Test
+    void awaitWritten_neverWritesInCallerThread_timesOutWhenWorkerStopped() {
+        TaskHistoryWriter w = new TaskHistoryWriter(repository, txManager, 100, 50,
+                Duration.ofSeconds(30), Duration.ofMillis(50)); // jamais démarré
+        w.enqueue(history(1));
+
+        assertThat(w.awaitWritten(1L)).isFalse();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void stop_letsWorkerCommitItsBatchWithoutInterrupt() throws InterruptedException {
+        newWriter(100, 50, Duration.ofSeconds(30));
+        CountDownLatch inSave = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            inSave.countDown();
+            try {
+                Thread.sleep(200); // insertion en cours pendant l'arrêt
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return inv.getArgument(0);
+        });
+        writer.start();
+        writer.enqueue(history(1));
+        new Thread(() -> writer.awaitWritten(1L)).start(); // déclenche le lot tout de suite
+        assertThat(inSave.await(5, TimeUnit.SECONDS)).isTrue();
+
+        writer.stop();
+        writer = null;
+
+        assertThat(interrupted).isFalse();
+    }
+}
@@ -0,0 +1,133 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.BatchItemResult;
+import com.mpmt.backend.entity.PriorityType;
+import com.mpmt.backend.entity.StatusType;
+import com.mpmt.backend.entity.Task;
+import com.mpmt.backend.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskImportServiceTest {
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final AtomicLong ids = new AtomicLong(100);
+    private TaskImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(taskService.createTask(any(Task.class))).thenAnswer(inv -> {
+            Task t = inv.getArgument(0);
+            t.setId(ids.incrementAndGet());
+            return t;
+        });
+        importService = new TaskImportService(taskService, txManager, 2);
+        User u = new User(); u.setId(7L);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(u, null, "ROLE_MEMBER"));
+    }
+
+    @AfterEach
+    void clearCtx() { SecurityContextHolder.clearContext(); }
+
+    private static Task task(String name) {
+        Task t = new Task();
+        t.setName(name);
+        t.setPriority(PriorityType.MEDIUM);
+        t.setStatus(StatusType.TODO);
+        return t;
+    }
+
+    @Test
+    void importTasks_oneTransactionPerChunk_andSetsProjectAndCreator() {
+        List<Task> tasks = List.of(task("a"), task("b"), task("c"), task("d"), task("e"));
+
+        List<BatchItemResult> results = importService.importTasks(10L, tasks.iterator());
+
+        assertThat(results).extracting(BatchItemResult::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results).allMatch(r -> r.id() != null && r.error() == null);
+        assertThat(tasks).allMatch(t -> t.getProjectId() == 10L && t.getCreatedBy() == 7L);
+        verify(txManager, times(3)).commit(any()); // 2 + 2 + 1
+    }
+
+    @Test
+    void importTasks_invalidItemsReported_othersCreated() {
+        Task noName = task(" ");
+        Task noPriority = task("p"); noPriority.setPriority(null);
+
+        List<BatchItemResult> results = importService.importTasks(10L, List.of(task("a"), noName, noPriority).iterator());
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).id()).isNotNull();
+        assertThat(results.get(1).error()).isEqualTo("name is required");
+        assertThat(results.get(2).error()).isEqualTo("priority is required");
+        verify(taskService, times(1)).createTask(any());
+    }
+
+    @Test
+    void importTasks_noAuthenticatedUser_itemsWithoutCreatorRejectedBeforeInsert() {
+        SecurityContextHolder.clearContext();
+        Task withCreator = task("b");
+        withCreator.setCreatedBy(3L);
+
+        List<BatchItemResult> results = importService.importTasks(10L, List.of(task("a"), withCreator).iterator());
+
+        assertThat(results.get(0).error()).isEqualTo("createdBy is required");
+        assertThat(results.get(1).id()).isNotNull();
+        verify(taskService, times(1)).createTask(withCreator);
+        verify(txManager, never()).rollback(any());
+    }
+
+    @Test
+    void importTasks_failedChunk_retriedItemByItem() {
+        Task bad = task("bad");
+        when(taskService.createTask(bad)).thenThrow(new IllegalStateException("boom"));
+
+        List<BatchItemResult> results = importService.importTasks(10L, List.of(task("a"), bad).iterator());
+
+        verify(txManager).rollback(any());
+        assertThat(results.get(0).id()).isNotNull();
+        assertThat(results.get(1).id()).isNull();
+        assertThat(results.get(1).error()).isEqualTo("boom");
+    }
+
+    @Test
+    void importTasks_readErrorStopsImport_keepsPreviousItems() {
+        Iterator<Task> broken = new Iterator<>() {
+            private int read;
+            @Override public boolean hasNext() { return true; }
+            @Override public Task next() {
+                if (read++ == 0) return task("a");
+                throw new IllegalArgumentException("Unexpected character");
+            }
+        };
+
+        List<BatchItemResult> results = importService.importTasks(10L, broken);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).id()).isNotNull();
+        assertThat(results.get(1).index()).isEqualTo(1);
+        assertThat(results.get(1).error()).contains("Unexpected character");
+    }
+
+    @Test
+    void importTasks_empty() {
+        assertThat(importService.importTasks(10L, new ArrayList<Task>().iterator())).isEmpty();
+        verifyNoInteractions(taskService);
+    }
+}
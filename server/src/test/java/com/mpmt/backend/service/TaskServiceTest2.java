@@ -28,6 +28,10 @@ class TaskServiceTest2 {
     private TaskRepository taskRepository;
     @Mock
     private TaskHistoryService taskHistoryService;
+    @Mock
+    private ProjectStatsCounters statsCounters;
+    @Mock
+    private UnreadNotificationCounters unreadCounters;
 
     @InjectMocks
     private TaskService service;
@@ -97,9 +101,10 @@ class TaskServiceTest2 {
 
     @Test
     void shouldDeleteTask() {
-        doNothing().when(taskRepository).deleteById(10L);
-        service.deleteTask(10L);
-        verify(taskRepository).deleteById(10L);
+        when(taskRepository.deleteReturningStatus(10L))
+                .thenReturn(Optional.of(new com.mpmt.backend.DTO.DeletedTask(10L, 1L, StatusType.TODO, java.util.List.of())));
+        assertThat(service.deleteTask(10L)).isTrue();
+        verify(taskRepository).deleteReturningStatus(10L);
     }
 
     @Test
@@ -124,7 +129,6 @@ class TaskServiceTest2 {
 
         when(taskRepository.findById(10L)).thenReturn(Optional.of(existing));
         when(taskRepository.save(any(Task.class))).thenReturn(existing);
-        when(taskHistoryService.createHistory(any(TaskHistory.class))).thenReturn(new TaskHistory());
 
         // Modification
         Task updates = new Task();
@@ -137,7 +141,7 @@ class TaskServiceTest2 {
         assertThat(updated.getName()).isEqualTo("New Name");
         assertThat(updated.getStatus()).isEqualTo(StatusType.IN_PROGRESS);
         verify(taskRepository).save(any(Task.class));
-        verify(taskHistoryService).createHistory(any(TaskHistory.class));
+        verify(taskHistoryService).append(any(TaskHistory.class));
     }
 
     @Test
@@ -152,12 +156,11 @@ class TaskServiceTest2 {
 
         when(taskRepository.findById(10L)).thenReturn(Optional.of(task));
         when(taskRepository.save(any(Task.class))).thenReturn(task);
-        when(taskHistoryService.createHistory(any(TaskHistory.class))).thenReturn(new TaskHistory());
 
         Task updated = service.updateTaskStatus(10L, StatusType.DONE);
 
         assertThat(updated.getStatus()).isEqualTo(StatusType.DONE);
-        verify(taskHistoryService).createHistory(any(TaskHistory.class));
+        verify(taskHistoryService).append(any(TaskHistory.class));
     }
 
     @Test
@@ -0,0 +1,117 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.ProjectStats;
+import com.mpmt.backend.DTO.StatusCount;
+import com.mpmt.backend.MpmtBackendApplication;
+import com.mpmt.backend.entity.Project;
+import com.mpmt.backend.entity.StatusType;
+import com.mpmt.backend.entity.Task;
+import com.mpmt.backend.repository.ProjectRepository;
+import com.mpmt.backend.repository.TaskRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'ancien calcul de GET /api/projects/{id}/stats (toutes les tâches chargées puis 3 streams)
+ * au group by status (TaskRepository.countByStatusForProject) et aux compteurs en mémoire
+ * (TaskService.getProjectStats), sur un projet de 100, 10k et 100k tâches (H2 en mémoire).
+ *
+ * Lancement (depuis server/) :
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.mpmt.backend.service.TaskStatsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskStatsBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int taskCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private Long projectId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MpmtBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments de ligne de commande : prioritaires sur application.properties (PostgreSQL)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:stats" + taskCount + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.sql.init.mode=never",
+                        "--logging.level.root=WARN");
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+
+        Project project = new Project();
+        project.setName("bench-" + taskCount);
+        project.setStartDate(new Date());
+        projectId = context.getBean(ProjectRepository.class).save(project).getId();
+
+        // Insertion JDBC en batch : le remplissage ne doit pas dominer le temps de setup.
+        // Schéma Flyway : l'id vient de tasks_seq, comme pour Hibernate (pas de valeur par défaut)
+        StatusType[] statuses = StatusType.values();
+        List<Object[]> rows = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            rows.add(new Object[]{"task-" + i, "MEDIUM", statuses[i % statuses.length].name(), 1L, projectId});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "insert into tasks (id, name, priority, status, created_by, project_id) " +
+                "values (next value for tasks_seq, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Ancien chemin du contrôleur : findByProject_Id puis un stream par statut. */
+    @Benchmark
+    public ProjectStats legacyLoadAllTasks() {
+        List<Task> tasks = taskService.getTasksByProjectId(projectId);
+        long todo = tasks.stream().filter(t -> t.getStatus() == StatusType.TODO).count();
+        long inProgress = tasks.stream().filter(t -> t.getStatus() == StatusType.IN_PROGRESS).count();
+        long done = tasks.stream().filter(t -> t.getStatus() == StatusType.DONE).count();
+        return ProjectStats.of(todo, inProgress, done);
+    }
+
+    /** Group by status : une ligne par statut renvoyée par la base. */
+    @Benchmark
+    public List<StatusCount> groupByStatus() {
+        return taskRepository.countByStatusForProject(projectId);
+    }
+
+    /** Chemin actuel : compteurs en mémoire (chargés une fois par le group by). */
+    @Benchmark
+    public ProjectStats inMemoryCounters() {
+        return taskService.getProjectStats(projectId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TaskStatsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
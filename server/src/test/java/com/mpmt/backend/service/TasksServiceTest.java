@@ -1,6 +1,9 @@
 // java
 package com.mpmt.backend.service;
 
+import com.mpmt.backend.DTO.DeletedTask;
+import com.mpmt.backend.DTO.ProjectStats;
+import com.mpmt.backend.DTO.TaskStatusRow;
 import com.mpmt.backend.entity.PriorityType;
 import com.mpmt.backend.entity.StatusType;
 import com.mpmt.backend.entity.Task;
@@ -28,6 +31,8 @@ class TaskServiceTest {
 
     @Mock TaskRepository taskRepository;
     @Mock TaskHistoryService taskHistoryService;
+    @Mock ProjectStatsCounters statsCounters;
+    @Mock UnreadNotificationCounters unreadCounters;
     @InjectMocks TaskService taskService;
 
     @AfterEach
@@ -64,12 +69,81 @@ class TaskServiceTest {
         return taskService.getTasksByProjectId(10L);
     }
 
+    @Test
+    void getTasksAfter_usesKeysetQuery() {
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(new Task()));
+        assertEquals(1, taskService.getTasksAfter(null, 10).size());
+    }
+
+    @Test
+    void clampPageSize_bounds() {
+        assertEquals(TaskService.MAX_PAGE_SIZE, TaskService.clampPageSize(null));
+        assertEquals(TaskService.MAX_PAGE_SIZE, TaskService.clampPageSize(TaskService.MAX_PAGE_SIZE + 1));
+        assertEquals(1, TaskService.clampPageSize(0));
+        assertEquals(20, TaskService.clampPageSize(20));
+    }
+
+    @Test
+    void streamTasks_feedsConsumerAndClosesStream() {
+        Task a = new Task(); a.setId(1L);
+        Task b = new Task(); b.setId(2L);
+        boolean[] closed = {false};
+        when(taskRepository.streamByIdGreaterThan(0L))
+                .thenReturn(java.util.stream.Stream.of(a, b).onClose(() -> closed[0] = true));
+
+        List<Task> seen = new java.util.ArrayList<>();
+        taskService.streamTasks(null, seen::add);
+
+        assertEquals(List.of(a, b), seen);
+        assertTrue(closed[0]);
+    }
+
     @Test
     void getTasksByProjectIdAndStatus_ok() {
         when(taskRepository.findByProject_IdAndStatus(10L, StatusType.TODO)).thenReturn(List.of(new Task()));
         assertEquals(1, taskService.getTasksByProjectIdAndStatus(10L, StatusType.TODO).size());
     }
 
+    @Test
+    void getProjectStats_servedByCounters() {
+        ProjectStats stats = ProjectStats.of(3, 0, 1);
+        when(statsCounters.get(10L)).thenReturn(stats);
+
+        assertSame(stats, taskService.getProjectStats(10L));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void createTask_incrementsCounters() {
+        Task t = new Task(); t.setProjectId(10L); t.setStatus(StatusType.TODO);
+        when(taskRepository.save(t)).thenReturn(t);
+
+        taskService.createTask(t);
+
+        verify(statsCounters).onTaskCreated(10L, StatusType.TODO);
+    }
+
+    @Test
+    void deleteTask_existing_decrementsCountersAndEvictsUnread() {
+        when(taskRepository.deleteReturningStatus(5L))
+                .thenReturn(Optional.of(new DeletedTask(5L, 10L, StatusType.DONE, List.of(7L, 8L))));
+
+        assertTrue(taskService.deleteTask(5L));
+
+        verify(statsCounters).onTaskDeleted(10L, StatusType.DONE);
+        verify(unreadCounters).onTaskDeleted(List.of(7L, 8L));
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    void deleteTask_withoutReturnedStatus_leavesCountersToReconcile() {
+        when(taskRepository.deleteReturningStatus(5L)).thenReturn(Optional.of(DeletedTask.idOnly(5L)));
+
+        assertTrue(taskService.deleteTask(5L));
+
+        verifyNoInteractions(statsCounters);
+    }
+
     @Test
     void createTask_ok() {
         Task t = new Task(); t.setName("N");
@@ -78,9 +152,12 @@ class TaskServiceTest {
     }
 
     @Test
-    void deleteTask_ok() {
-        taskService.deleteTask(99L);
-        verify(taskRepository).deleteById(99L);
+    void deleteTask_missing_returnsFalse() {
+        when(taskRepository.deleteReturningStatus(99L)).thenReturn(Optional.empty());
+
+        assertFalse(taskService.deleteTask(99L));
+
+        verifyNoInteractions(statsCounters);
     }
 
     // --------- updateTask
@@ -134,7 +211,7 @@ class TaskServiceTest {
         assertNull(result.getEndDate());
 
         ArgumentCaptor<TaskHistory> cap = ArgumentCaptor.forClass(TaskHistory.class);
-        verify(taskHistoryService).createHistory(cap.capture());
+        verify(taskHistoryService).append(cap.capture());
         TaskHistory h = cap.getValue();
         assertEquals(1L, h.getTaskId());
         assertEquals(7L, h.getChangedBy());
@@ -167,10 +244,33 @@ class TaskServiceTest {
 
         Task res = taskService.updateTask(incoming);
         assertEquals("Same", res.getName());
-        verify(taskHistoryService, never()).createHistory(any());
+        verify(taskHistoryService, never()).append(any());
+    }
+
+    @Test
+    void updateTask_staleExpectedVersion_throwsWithoutSaving() {
+        Task existing = new Task(); existing.setId(6L); existing.setVersion(4L);
+        when(taskRepository.findById(6L)).thenReturn(Optional.of(existing));
+        Task incoming = new Task(); incoming.setId(6L); incoming.setName("N");
+
+        assertThrows(org.springframework.dao.OptimisticLockingFailureException.class,
+                () -> taskService.updateTask(incoming, 3L));
+        verify(taskRepository, never()).save(any());
+        verify(taskHistoryService, never()).append(any());
     }
 
     // --------- updateTaskStatus
+    @Test
+    void updateTaskStatus_matchingExpectedVersion_saves() {
+        Task existing = new Task(); existing.setId(8L); existing.setVersion(2L); existing.setStatus(StatusType.TODO);
+        when(taskRepository.findById(8L)).thenReturn(Optional.of(existing));
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals(StatusType.DONE, taskService.updateTaskStatus(8L, StatusType.DONE, 2L).getStatus());
+        assertThrows(org.springframework.dao.OptimisticLockingFailureException.class,
+                () -> taskService.updateTaskStatus(8L, StatusType.TODO, 1L));
+    }
+
     @Test
     void updateTaskStatus_notFound_throws() {
         when(taskRepository.findById(55L)).thenReturn(Optional.empty());
@@ -186,7 +286,7 @@ class TaskServiceTest {
         Task out = taskService.updateTaskStatus(3L, StatusType.TODO);
         assertSame(existing, out);
         verify(taskRepository, never()).save(any());
-        verify(taskHistoryService, never()).createHistory(any());
+        verify(taskHistoryService, never()).append(any());
     }
 
     @Test
@@ -203,9 +303,45 @@ class TaskServiceTest {
         verify(taskRepository).save(existing);
 
         ArgumentCaptor<TaskHistory> cap = ArgumentCaptor.forClass(TaskHistory.class);
-        verify(taskHistoryService).createHistory(cap.capture());
+        verify(taskHistoryService).append(cap.capture());
         assertEquals(4L, cap.getValue().getTaskId());
         assertEquals(99L, cap.getValue().getChangedBy());
         assertEquals("status: TODO -> IN_PROGRESS", cap.getValue().getChangeDescription());
+        verify(statsCounters).onStatusChanged(null, StatusType.TODO, StatusType.IN_PROGRESS);
+    }
+
+    // --------- updateTaskStatuses (en masse)
+    @Test
+    void updateTaskStatuses_singleUpdate_historyBatch_sameFormat() {
+        when(taskRepository.lockStatusesToChange(List.of(1L, 2L, 3L), StatusType.DONE)).thenReturn(List.of(
+                new TaskStatusRow(1L, 10L, StatusType.TODO),
+                new TaskStatusRow(3L, 10L, StatusType.IN_PROGRESS)));
+        setAuthUser(5L);
+
+        List<Long> updated = taskService.updateTaskStatuses(List.of(3L, 1L, 2L, 1L), StatusType.DONE);
+
+        assertEquals(List.of(1L, 3L), updated);
+        verify(taskRepository).updateStatusByIdIn(List.of(1L, 3L), StatusType.DONE);
+        verify(taskRepository, never()).save(any());
+        verify(statsCounters).onStatusChanged(10L, StatusType.TODO, StatusType.DONE);
+        verify(statsCounters).onStatusChanged(10L, StatusType.IN_PROGRESS, StatusType.DONE);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskHistory>> cap = ArgumentCaptor.forClass(List.class);
+        verify(taskHistoryService).appendAll(cap.capture());
+        assertEquals(List.of("status: TODO -> DONE", "status: IN_PROGRESS -> DONE"),
+                cap.getValue().stream().map(TaskHistory::getChangeDescription).toList());
+        assertTrue(cap.getValue().stream().allMatch(h -> h.getChangedBy() == 5L));
+        verify(taskHistoryService, never()).append(any());
+    }
+
+    @Test
+    void updateTaskStatuses_chunksInClause() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, TaskService.BULK_IN_CHUNK + 1).boxed().toList();
+
+        assertTrue(taskService.updateTaskStatuses(ids, StatusType.DONE).isEmpty());
+
+        verify(taskRepository, times(2)).lockStatusesToChange(anyCollection(), eq(StatusType.DONE));
+        verify(taskRepository, never()).updateStatusByIdIn(anyCollection(), any());
     }
 }
@@ -18,12 +18,14 @@ import static org.mockito.Mockito.*;
 class TaskHistoryServiceTest {
 
     private TaskHistoryRepository repository;
+    private TaskHistoryWriter writer;
     private TaskHistoryService service;
 
     @BeforeEach
     void setUp() {
         repository = mock(TaskHistoryRepository.class);
-        service = new TaskHistoryService(repository);
+        writer = mock(TaskHistoryWriter.class);
+        service = new TaskHistoryService(repository, writer);
     }
 
     @Test
@@ -61,4 +63,50 @@ class TaskHistoryServiceTest {
         List<TaskHistory> histories = service.getHistoriesByTaskId(1L);
         assertThat(histories).isNotEmpty();
     }
+
+    @Test
+    @DisplayName("append hors transaction : confié directement au writer")
+    void append_withoutTransaction_enqueues() {
+        TaskHistory history = new TaskHistory();
+        service.append(history);
+        verify(writer).enqueue(history);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("append en transaction : confié au writer seulement après le commit")
+    void append_inTransaction_enqueuesAfterCommit() {
+        org.springframework.transaction.support.TransactionSynchronizationManager.initSynchronization();
+        try {
+            TaskHistory history = new TaskHistory();
+            service.append(history);
+            verify(writer, never()).enqueue(any());
+
+            org.springframework.transaction.support.TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(org.springframework.transaction.support.TransactionSynchronization::afterCommit);
+            verify(writer).enqueue(history);
+        } finally {
+            org.springframework.transaction.support.TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Lecture de l'historique : attend les entrées en attente de la tâche, sans vider la file")
+    void getHistoriesByTaskId_awaitsTaskEntriesFirst() {
+        service.getHistoriesByTaskId(1L);
+        var order = inOrder(writer, repository);
+        order.verify(writer).awaitWritten(1L);
+        order.verify(repository).findByTaskId(1L);
+        verify(writer, never()).flushPending();
+    }
+
+    @Test
+    @DisplayName("appendAll : un seul saveAll dans la transaction courante, rien si la liste est vide")
+    void appendAll_singleSaveAll() {
+        List<TaskHistory> batch = List.of(new TaskHistory(), new TaskHistory());
+        service.appendAll(batch);
+        service.appendAll(List.of());
+        verify(repository, times(1)).saveAll(batch);
+        verifyNoInteractions(writer);
+    }
 }
@@ -0,0 +1,150 @@
+package com.mpmt.backend.service;
+
+import com.mpmt.backend.DTO.UserUnreadCount;
+import com.mpmt.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UnreadNotificationCountersTest {
+
+    private final NotificationRepository repository = mock(NotificationRepository.class);
+    private final UnreadNotificationCounters counters = new UnreadNotificationCounters(repository, 100);
+
+    @Test
+    void get_loadsOnceThenServesFromMemory() {
+        when(repository.countByUserIdAndReadFalse(1L)).thenReturn(4L);
+
+        assertThat(counters.get(1L)).isEqualTo(4);
+        assertThat(counters.get(1L)).isEqualTo(4);
+
+        verify(repository, times(1)).countByUserIdAndReadFalse(1L);
+        assertThat(counters.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void deltas_keepCountUpToDate() {
+        when(repository.countByUserIdAndReadFalse(1L)).thenReturn(2L);
+        counters.get(1L);
+
+        counters.onCreated(1L, false);
+        counters.onCreated(1L, true);   // créée déjà lue : pas de non lue en plus
+        counters.onRead(1L);
+        counters.onDeleted(1L, false);
+        counters.onDeleted(1L, true);
+        assertThat(counters.get(1L)).isEqualTo(1);
+
+        counters.onCreated(1L, false);
+        counters.onCreated(1L, false);
+        counters.onRead(1L, 3);  // markAllRead
+        counters.onRead(1L, 0);
+        assertThat(counters.get(1L)).isZero();
+    }
+
+    @Test
+    void deltas_ignoredUntilLoaded() {
+        counters.onCreated(2L, false);
+        when(repository.countByUserIdAndReadFalse(2L)).thenReturn(1L);
+
+        assertThat(counters.get(2L)).isEqualTo(1); // le count voit déjà la notification commitée
+    }
+
+    @Test
+    void negativeCount_isDroppedAndRecounted() {
+        when(repository.countByUserIdAndReadFalse(3L)).thenReturn(0L, 0L);
+        counters.get(3L);
+
+        counters.onRead(3L);
+
+        assertThat(counters.size()).isZero();
+        assertThat(counters.get(3L)).isZero();
+        verify(repository, times(2)).countByUserIdAndReadFalse(3L);
+    }
+
+    @Test
+    void inTransaction_appliedAfterCommitOnly() {
+        when(repository.countByUserIdAndReadFalse(1L)).thenReturn(0L);
+        counters.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.onCreated(1L, false);
+            assertThat(counters.get(1L)).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(counters.get(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void deltaCommittedDuringLoad_recounted() {
+        // le count part avant le commit, le delta arrive (après commit) avant l'insertion du compteur
+        when(repository.countByUserIdAndReadFalse(4L)).thenAnswer(inv -> {
+            counters.onCreated(4L, false);
+            return 0L;
+        }).thenReturn(1L);
+
+        assertThat(counters.get(4L)).isEqualTo(1);
+        verify(repository, times(2)).countByUserIdAndReadFalse(4L);
+    }
+
+    @Test
+    void onTaskDeleted_evictsAfterCommit() {
+        when(repository.countByUserIdAndReadFalse(1L)).thenReturn(3L, 1L);
+        counters.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.onTaskDeleted(List.of(1L, 2L));
+            assertThat(counters.size()).isEqualTo(1);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(counters.size()).isZero();
+        assertThat(counters.get(1L)).isEqualTo(1); // recompté sans les notifications parties en cascade
+    }
+
+    @Test
+    void reconcile_correctsDriftOfLoadedUsers() {
+        when(repository.countByUserIdAndReadFalse(1L)).thenReturn(2L);
+        when(repository.countByUserIdAndReadFalse(2L)).thenReturn(5L);
+        counters.get(1L);
+        counters.get(2L);
+        // autre instance : une notification lue sur 1, toutes celles de 2 supprimées (absent du group by)
+        when(repository.countUnreadByUserIdIn(anyCollection())).thenReturn(List.of(new UserUnreadCount(1L, 1L)));
+
+        assertThat(counters.reconcile()).isEqualTo(2);
+        assertThat(counters.get(1L)).isEqualTo(1);
+        assertThat(counters.get(2L)).isZero();
+        assertThat(counters.getDriftCorrections()).isEqualTo(2);
+
+        assertThat(counters.reconcile()).isZero();
+    }
+
+    @Test
+    void reconcile_skipsUserModifiedDuringCount() {
+        when(repository.countByUserIdAndReadFalse(1L)).thenReturn(2L);
+        counters.get(1L);
+        when(repository.countUnreadByUserIdIn(anyCollection())).thenAnswer(inv -> {
+            counters.onCreated(1L, false); // commité après le group by
+            return List.of(new UserUnreadCount(1L, 2L));
+        });
+
+        assertThat(counters.reconcile()).isZero();
+        assertThat(counters.get(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void reconcile_nothingLoaded_noQuery() {
+        assertThat(counters.reconcile()).isZero();
+        verifyNoInteractions(repository);
+    }
+}
@@ -5,6 +5,7 @@ import com.mpmt.backend.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -13,7 +14,7 @@ class UserServiceTest {
     @Test
     void shouldCreateAndFindUser() {
         UserRepository mockRepo = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(mockRepo);
+        UserService service = new UserService(mockRepo, new UserPrincipalCache(Duration.ofMinutes(5), 100));
 
         User user = new User();
         user.setUsername("bob");
@@ -28,4 +29,45 @@ class UserServiceTest {
         assertThat(found).isPresent();
         assertThat(found.get().getEmail()).isEqualTo("bob@mail.com");
     }
+
+    @Test
+    void getPrincipalByEmail_secondCallServedFromCache() {
+        UserRepository mockRepo = Mockito.mock(UserRepository.class);
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(5), 100);
+        UserService service = new UserService(mockRepo, cache);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bob@mail.com");
+        Mockito.when(mockRepo.findByEmail("bob@mail.com")).thenReturn(Optional.of(user));
+
+        assertThat(service.getPrincipalByEmail("bob@mail.com")).contains(user);
+        assertThat(service.getPrincipalByEmail("bob@mail.com")).contains(user);
+
+        Mockito.verify(mockRepo, Mockito.times(1)).findByEmail("bob@mail.com");
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void createAndDeleteUser_invalidatePrincipal() {
+        UserRepository mockRepo = Mockito.mock(UserRepository.class);
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(5), 100);
+        UserService service = new UserService(mockRepo, cache);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bob@mail.com");
+        Mockito.when(mockRepo.findByEmail("bob@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(mockRepo.save(user)).thenReturn(user);
+
+        service.getPrincipalByEmail("bob@mail.com");
+        service.createUser(user); // ex: changement de rôle
+        service.getPrincipalByEmail("bob@mail.com");
+        service.deleteUser(1L);
+        service.getPrincipalByEmail("bob@mail.com");
+
+        Mockito.verify(mockRepo, Mockito.times(3)).findByEmail("bob@mail.com");
+        assertThat(cache.getHits()).isZero();
+    }
 }
@@ -0,0 +1,27 @@
+-- Passage des ids IDENTITY aux séquences pooled (allocationSize = 50) pour le batch JDBC des INSERT.
+-- Concerne : tasks, task_history, task_assignment, notification, project_member.
+-- À exécuter une fois sur une base existante, application arrêtée. Idempotent.
+--
+-- Pour chaque table :
+--  1) séquence dédiée, INCREMENT 50 (doit correspondre à allocationSize) ;
+--  2) positionnée au-delà du max(id) : le premier bloc Hibernate commence après les ids existants ;
+--  3) la colonne perd son IDENTITY et prend la séquence en DEFAULT (inserts SQL manuels, ex. demo-data.sql).
+
+DO $$
+DECLARE
+    t   text;
+    seq text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['tasks', 'task_history', 'task_assignment', 'notification', 'project_member']
+    LOOP
+        seq := t || '_seq';
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS public.%I INCREMENT BY 50', seq);
+        EXECUTE format('ALTER SEQUENCE public.%I INCREMENT BY 50', seq);
+        EXECUTE format(
+            'SELECT setval(''public.%I'', (SELECT COALESCE(MAX(id), 0) + 50 FROM public.%I), false)',
+            seq, t);
+        EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id SET DEFAULT nextval(''public.%I'')', t, seq);
+        EXECUTE format('ALTER SEQUENCE public.%I OWNED BY public.%I.id', seq, t);
+    END LOOP;
+END $$;
@@ -51,3 +51,12 @@ CREATE INDEX IF NOT EXISTS idx_th_task_id                  ON public.task_histor
 CREATE INDEX IF NOT EXISTS idx_th_changed_by               ON public.task_history(changed_by);
 CREATE INDEX IF NOT EXISTS idx_notif_task_id               ON public.notification(task_id);
 CREATE INDEX IF NOT EXISTS idx_notif_user_id               ON public.notification(user_id);
+
+-- Le fil des notifications trie sur sent_at : jamais null
+UPDATE public.notification SET sent_at = now() WHERE sent_at IS NULL;
+
+ALTER TABLE public.notification
+    ALTER COLUMN sent_at SET DEFAULT now();
+
+ALTER TABLE public.notification
+    ALTER COLUMN sent_at SET NOT NULL;
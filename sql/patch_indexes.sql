@@ -0,0 +1,20 @@
+-- Index de la recherche paginée des tâches d'un projet (GET /api/projects/{id}/tasks/search)
+CREATE INDEX IF NOT EXISTS idx_tasks_project_id
+    ON public.tasks (project_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_project_due
+    ON public.tasks (project_id, due_date, id);
+
+-- Filtre "assignee" : TaskAssignment -> ProjectMember.user
+CREATE INDEX IF NOT EXISTS idx_task_assignment_pm
+    ON public.task_assignment (project_member_id, task_id);
+
+CREATE INDEX IF NOT EXISTS idx_project_member_user
+    ON public.project_member (user_id);
+
+-- Fil des notifications (GET /api/notifications/user/{id}/feed), keyset sur (sent_at, id) décroissants
+CREATE INDEX IF NOT EXISTS idx_notification_user_read_sent
+    ON public.notification (user_id, read, sent_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notification_user_sent
+    ON public.notification (user_id, sent_at DESC, id DESC);
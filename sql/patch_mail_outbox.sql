@@ -0,0 +1,18 @@
+-- Outbox des e-mails (écrite avec l'assignation, envoyée par MailOutboxDispatcher)
+CREATE SEQUENCE IF NOT EXISTS public.mail_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS public.mail_outbox (
+    id              bigint PRIMARY KEY,
+    recipient       varchar(255)  NOT NULL,
+    template        varchar(64)   NOT NULL,
+    params          text          NOT NULL,
+    status          varchar(16)   NOT NULL,
+    attempts        integer       NOT NULL DEFAULT 0,
+    created_at      timestamp(6)  NOT NULL DEFAULT now(),
+    next_attempt_at timestamp(6)  NOT NULL DEFAULT now(),
+    sent_at         timestamp(6),
+    last_error      varchar(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_status_next
+    ON public.mail_outbox (status, next_attempt_at);
@@ -0,0 +1,8 @@
+-- Colonne de version de tasks (verrouillage optimiste, ETag / If-Match sur /api/tasks/{id})
+-- À passer avant le démarrage de l'application sur une base existante : les lignes déjà présentes partent de 0.
+ALTER TABLE public.tasks ADD COLUMN IF NOT EXISTS version bigint;
+
+UPDATE public.tasks SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE public.tasks ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE public.tasks ALTER COLUMN version SET NOT NULL;